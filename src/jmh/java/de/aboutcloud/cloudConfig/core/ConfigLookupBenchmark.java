@@ -0,0 +1,63 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.ConfigView;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** getConfig(plugin, file) followed by a typical getter, against the published snapshot; *Compact against getCompactConfig. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConfigLookupBenchmark {
+    private static final String YAML = """
+            settings:
+              limits:
+                max-players: 64
+                radius: 12.5
+              messages:
+                prefix: "<gold>[Server]</gold>"
+            """;
+
+    private PerPluginState state;
+
+    @Setup
+    public void setup() throws InvalidConfigurationException, IOException {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.loadFromString(YAML);
+        state = new PerPluginState(null, Locale.ENGLISH);
+        state.publish(Map.of("config.yml", cfg, "database.yml", new YamlConfiguration()), state.snapshot().locales());
+        state.compact.put("config.yml", CompactConfig.load(() -> new StringReader(YAML)).view(null));
+    }
+
+    @Benchmark
+    public String getString() {
+        FileConfiguration cfg = state.snapshot().configs().get("config.yml");
+        return cfg.getString("settings.messages.prefix");
+    }
+
+    @Benchmark
+    public int getInt() {
+        FileConfiguration cfg = state.snapshot().configs().get("config.yml");
+        return cfg.getInt("settings.limits.max-players");
+    }
+
+    @Benchmark
+    public String getStringCompact() {
+        ConfigView cfg = state.compact.get("config.yml");
+        return cfg.getString("settings.messages.prefix");
+    }
+
+    @Benchmark
+    public int getIntCompact() {
+        ConfigView cfg = state.compact.get("config.yml");
+        return cfg.getInt("settings.limits.max-players");
+    }
+}
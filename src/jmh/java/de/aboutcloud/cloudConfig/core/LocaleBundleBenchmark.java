@@ -0,0 +1,47 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocaleBundleBenchmark {
+    @Param({"1", "3", "6"})
+    public int depth;
+
+    private String yaml;
+    private String key;
+    private LocaleBundle bundle;
+
+    @Setup
+    public void setup() {
+        // 200 leaves below a chain of `depth` sections
+        StringBuilder sb = new StringBuilder();
+        StringBuilder path = new StringBuilder();
+        String indent = "";
+        for (int d = 0; d < depth - 1; d++) {
+            sb.append(indent).append("level").append(d).append(":\n");
+            path.append("level").append(d).append('.');
+            indent += "  ";
+        }
+        for (int i = 0; i < 200; i++) {
+            sb.append(indent).append("key").append(i).append(": \"<gray>Message number ").append(i).append("</gray>\"\n");
+        }
+        yaml = sb.toString();
+        key = path + "key150";
+        bundle = LocaleBundle.parse(new StringReader(yaml));
+    }
+
+    @Benchmark
+    public String get() {
+        return bundle.get(key);
+    }
+
+    @Benchmark
+    public LocaleBundle parse() {
+        return LocaleBundle.parse(new StringReader(yaml));
+    }
+}
@@ -0,0 +1,123 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.CloudConfigRegistration;
+import de.aboutcloud.cloudConfig.api.config.Placeholders;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CloudConfigServiceImpl.message() as plugins call it (service*), and the steps behind it on their
+ * own: view lookup, cached template, render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageBenchmark {
+    private static final String DYNAMIC = "<gray>{player}</gray> has <green>{coins}</green> coins in <aqua>{world}</aqua>";
+
+    private final MiniMessage mm = MiniMessage.miniMessage();
+    private LocaleIndex index;
+    private Placeholders placeholders;
+    private Map<String, Object> placeholderMap;
+    private Path dataFolder;
+    private JavaPlugin plugin;
+    private CloudConfigServiceImpl service;
+
+    /** Outside a server JavaPlugin needs its test constructor; the server is never called. */
+    private static final class BenchPlugin extends JavaPlugin {
+        @SuppressWarnings({"deprecation", "removal"})
+        BenchPlugin(File dataFolder) {
+            super(new JavaPluginLoader((Server) Proxy.newProxyInstance(Server.class.getClassLoader(),
+                            new Class<?>[]{Server.class}, (proxy, method, args) -> null)),
+                    new PluginDescriptionFile("MessageBenchmark", "1.0", BenchPlugin.class.getName()),
+                    dataFolder, new File(dataFolder, "MessageBenchmark.jar"));
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        index = new LocaleIndex(Map.of(
+                Locale.ENGLISH, LocaleBundle.of(Map.of(
+                        "static.motd", "<gold>Welcome to the server!</gold>",
+                        "dynamic.balance", DYNAMIC)),
+                Locale.GERMANY, LocaleBundle.of(Map.of(
+                        "static.motd", "<gold>Willkommen auf dem Server!</gold>"))),
+                Locale.ENGLISH);
+        placeholders = Placeholders.of("player", "Notch", "coins", "1250", "world", "world_nether");
+        placeholderMap = Map.of("player", "Notch", "coins", 1250, "world", "world_nether");
+
+        dataFolder = Files.createTempDirectory("cloudconfig-bench");
+        Path locale = Files.createDirectories(dataFolder.resolve("locale"));
+        Files.writeString(locale.resolve("en.yml"), "static:\n  motd: \"<gold>Welcome to the server!</gold>\"\n"
+                + "dynamic:\n  balance: \"" + DYNAMIC + "\"\n");
+        Files.writeString(locale.resolve("de-DE.yml"), "static:\n  motd: \"<gold>Willkommen auf dem Server!</gold>\"\n");
+        plugin = new BenchPlugin(dataFolder.toFile());
+        service = new CloudConfigServiceImpl(plugin, new BlockingProfiler(LoggerFactory.getLogger("MessageBenchmark")));
+        service.register(plugin, new CloudConfigRegistration(List.of(), "en", "locale/en.yml", false));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.shutdown();
+        try (var files = Files.walk(dataFolder)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Benchmark
+    public Component serviceStaticMessage() {
+        return service.messageWith(plugin, "static.motd", Locale.GERMANY, Placeholders.NONE);
+    }
+
+    @Benchmark
+    public Component servicePlaceholders() {
+        return service.messageWith(plugin, "dynamic.balance", Locale.GERMANY, placeholders);
+    }
+
+    @Benchmark
+    public Component servicePlaceholdersFromMap() {
+        return service.message(plugin, "dynamic.balance", Locale.GERMANY, placeholderMap);
+    }
+
+    @Benchmark
+    public Component staticMessage() {
+        return index.view(Locale.GERMANY).template("static.motd", mm).render(Placeholders.NONE, mm);
+    }
+
+    @Benchmark
+    public Component placeholders() {
+        return index.view(Locale.GERMANY).template("dynamic.balance", mm).render(placeholders, mm);
+    }
+
+    @Benchmark
+    public Component placeholdersFromMap() {
+        return index.view(Locale.GERMANY).template("dynamic.balance", mm).render(Placeholders.of(placeholderMap), mm);
+    }
+
+    /** What message() did before templates: one replace pass per entry plus a full parse. */
+    @Benchmark
+    public Component uncachedReplaceAndParse() {
+        String raw = DYNAMIC;
+        for (var e : placeholderMap.entrySet()) {
+            raw = raw.replace("{" + e.getKey() + "}", String.valueOf(e.getValue()));
+        }
+        return mm.deserialize(raw);
+    }
+}
@@ -0,0 +1,38 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Statement tokenizing of a data-seeding migration with {@code statements} INSERTs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SqlSplitBenchmark {
+    @Param({"1000", "100000"})
+    public int statements;
+
+    private String sql;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("CREATE TABLE IF NOT EXISTS items (id INT PRIMARY KEY, name VARCHAR(64), lore TEXT);\n");
+        for (int i = 0; i < statements; i++) {
+            sb.append("INSERT INTO items (id, name, lore) VALUES (").append(i)
+              .append(", 'item_").append(i).append("', 'A \"quoted\" lore; with semicolon');\n");
+        }
+        sql = sb.toString();
+    }
+
+    @Benchmark
+    public int split() throws IOException {
+        int n = 0;
+        try (SqlScript script = new SqlScript(new StringReader(sql), Map.of("plugin", "bench"))) {
+            while (script.next() != null) n++;
+        }
+        return n;
+    }
+}
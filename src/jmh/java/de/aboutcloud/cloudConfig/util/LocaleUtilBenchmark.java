@@ -0,0 +1,25 @@
+package de.aboutcloud.cloudConfig.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocaleUtilBenchmark {
+    private final Locale requested = Locale.forLanguageTag("de-DE");
+    private final Locale def = Locale.forLanguageTag("en-US");
+
+    @Benchmark
+    public List<Locale> fallbackChain() {
+        return LocaleUtil.fallbackChain(requested, def);
+    }
+
+    @Benchmark
+    public Locale parseLocale() {
+        return LocaleUtil.parseLocale("pt_BR");
+    }
+}
@@ -0,0 +1,28 @@
+package de.aboutcloud.cloudConfig.util;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class YamlUtilBenchmark {
+    @Param({"42", "true", "12.5", "some text"})
+    public String value;
+
+    private YamlConfiguration cfg;
+
+    @Setup
+    public void setup() {
+        cfg = new YamlConfiguration();
+        cfg.set("settings.limits.value", "initial");
+    }
+
+    @Benchmark
+    public YamlConfiguration setSmart() {
+        YamlUtil.setSmart(cfg, "settings.limits.value", value);
+        return cfg;
+    }
+}
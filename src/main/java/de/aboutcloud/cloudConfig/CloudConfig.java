@@ -3,6 +3,7 @@ package de.aboutcloud.cloudConfig;
 import de.aboutcloud.cloudConfig.api.config.CloudConfigService;
 import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
 import de.aboutcloud.cloudConfig.command.CloudConfigCommand;
+import de.aboutcloud.cloudConfig.core.BlockingProfiler;
 import de.aboutcloud.cloudConfig.core.CloudConfigServiceImpl;
 import de.aboutcloud.cloudConfig.core.CloudDatabaseServiceImpl;
 import org.bukkit.plugin.ServicePriority;
@@ -12,19 +13,24 @@ public final class CloudConfig extends JavaPlugin {
 
     private CloudConfigServiceImpl ccs;
     private CloudDatabaseServiceImpl cdbs;
+    private BlockingProfiler profiler;
 
     @Override
     public void onEnable() {
-        this.ccs = new CloudConfigServiceImpl(this);
+        this.profiler = new BlockingProfiler(getSLF4JLogger());
+        this.ccs = new CloudConfigServiceImpl(this, profiler);
+        ccs.trackPlayerLocales();
+        ccs.trackPluginDisable();
         getServer().getServicesManager().register(CloudConfigService.class, ccs, this, ServicePriority.Normal);
 
-        this.cdbs = new CloudDatabaseServiceImpl(this, ccs);
+        this.cdbs = new CloudDatabaseServiceImpl(this, ccs, profiler);
+        ccs.attachDatabase(cdbs);
         getServer().getServicesManager().register(CloudDatabaseService.class, cdbs, this, ServicePriority.Normal);
 
 
         var cmd = getCommand("cloudconfig");
         if (cmd != null) {
-            var executor = new CloudConfigCommand(ccs);
+            var executor = new CloudConfigCommand(ccs, cdbs, profiler);
             cmd.setExecutor(executor);
             cmd.setTabCompleter(executor);
         }
@@ -34,6 +40,8 @@ public final class CloudConfig extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (ccs != null) ccs.stopFleet(); // polls use the pools
+        if (cdbs != null) cdbs.shutdown();
         if (ccs != null) ccs.shutdown();
         getSLF4JLogger().info("CloudConfig disabled");
     }
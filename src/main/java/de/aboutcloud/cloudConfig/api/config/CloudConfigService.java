@@ -3,32 +3,93 @@ package de.aboutcloud.cloudConfig.api.config;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public interface CloudConfigService {
 
     /** Register a plugin. */
     void register(JavaPlugin plugin, CloudConfigRegistration registration);
 
+    /** Register a plugin, parsing its files in parallel off the calling thread; completes once published. */
+    CompletableFuture<Void> registerAsync(JavaPlugin plugin, CloudConfigRegistration registration);
+
     /** Return a loaded config. */
     FileConfiguration getConfig(JavaPlugin plugin, String fileName);
 
-    /** Save a loaded config to disk. */
+    /** Read-only view of a config in a compact form for very large files (no MemorySection tree); rebuilt on reload. */
+    ConfigView getCompactConfig(JavaPlugin plugin, String fileName);
+
+    /** Bind a config file (path "" = whole file) to a record, validated now and rebuilt on reload. */
+    <T extends Record> ConfigBinding<T> bind(JavaPlugin plugin, String fileName, String path, Class<T> type);
+
+    /** Save a loaded config to disk (deferred and coalesced when write-behind is enabled). */
     void saveConfig(JavaPlugin plugin, String fileName);
 
+    /**
+     * Apply {@code change} to a copy of a loaded config, then publish and save the copy. Readers never
+     * see a half-applied change, unlike mutating the object returned by getConfig.
+     */
+    void updateConfig(JavaPlugin plugin, String fileName, Consumer<FileConfiguration> change);
+
+    /**
+     * Defer saveConfig for this plugin: a save only marks the file dirty, and once per second it is
+     * serialized on the server thread and written by a background writer, however often it was saved.
+     */
+    void setWriteBehind(JavaPlugin plugin, boolean enabled);
+
+    /** Write all pending write-behind saves, serializing them on the calling thread; completes once they are on disk. */
+    CompletableFuture<Void> flush();
+
     /** Reload all configs and locales for a plugin. */
     void reload(JavaPlugin plugin);
 
+    /** Watch plugins/<PluginName>/config and /locale and apply edited files without a full reload. */
+    void setWatching(JavaPlugin plugin, boolean enabled);
+
+    /** Pull config/locale files published to the plugin's database and apply changes (needs ensurePool). */
+    void setFleetSync(JavaPlugin plugin, boolean enabled);
+
+    /** Publish local config/locale files that differ from the fleet's newest version; completes with the number written. */
+    CompletableFuture<Integer> publishToFleet(JavaPlugin plugin);
+
+    /** Last fleet version applied on this server, 0 if not syncing. */
+    long fleetVersion(JavaPlugin plugin);
+
     /** Available locales (plugins/<PluginName>/locale/*.yml) */
     Set<Locale> getAvailableLocales(JavaPlugin plugin);
 
+    /** Effective message locale of a player (persisted override, else client locale). */
+    Locale localeOf(Player player);
+
+    /** Pin a player's message locale regardless of the client setting (null clears it); persisted. */
+    void setLocaleOverride(UUID player, Locale locale);
+
     /** Loaded MiniMessage to Component incl. placeholders. */
     Component message(JavaPlugin plugin, String key, Locale locale, Map<String, Object> placeholders);
 
+    /** Like message, but with Placeholders instead of a Map (no Map needed on hot paths). */
+    Component messageWith(JavaPlugin plugin, String key, Locale locale, Placeholders placeholders);
+
     /** Send a message to an audience (uses Player locale if possible). */
     void send(Audience audience, JavaPlugin plugin, String key, Map<String, Object> placeholders);
+
+    /** Like send, but with Placeholders instead of a Map (no Map needed on hot paths). */
+    void sendWith(Audience audience, JavaPlugin plugin, String key, Placeholders placeholders);
+
+    /** Send to many audiences, rendering the message once per distinct locale. */
+    void sendAll(Collection<? extends Audience> audiences, JavaPlugin plugin, String key, Placeholders placeholders);
+
+    /** Send to many audiences with placeholders per viewer; the message is parsed once per locale and only its placeholders per viewer. */
+    void sendAllPerViewer(Collection<? extends Audience> audiences, JavaPlugin plugin, String key,
+                          Function<? super Audience, Placeholders> placeholders);
 }
@@ -0,0 +1,10 @@
+package de.aboutcloud.cloudConfig.api.config;
+
+/** A config file (or a section of it) bound to a record; rebuilt whenever the file is reloaded. */
+public interface ConfigBinding<T extends Record> {
+
+    /** Current immutable value; a failed rebuild keeps the previous one. */
+    T get();
+
+    Class<T> type();
+}
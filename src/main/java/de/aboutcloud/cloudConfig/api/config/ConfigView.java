@@ -0,0 +1,50 @@
+package de.aboutcloud.cloudConfig.api.config;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only config access with the getters and conversion rules of Bukkit's {@code ConfigurationSection}.
+ * Paths are dot-separated and relative to this view. Views are immutable and safe to share across threads.
+ */
+public interface ConfigView {
+
+    boolean contains(String path);
+
+    boolean isSection(String path);
+
+    /** Sub-view rooted at path, or null if there is no section there. */
+    ConfigView getSection(String path);
+
+    /** Direct child keys in file order. */
+    Set<String> getKeys();
+
+    /** Raw value: String, Integer/Long/Double/Boolean, an unmodifiable List, or a ConfigView for sections. */
+    Object get(String path);
+
+    String getString(String path);
+
+    String getString(String path, String def);
+
+    int getInt(String path);
+
+    int getInt(String path, int def);
+
+    long getLong(String path);
+
+    long getLong(String path, long def);
+
+    double getDouble(String path);
+
+    double getDouble(String path, double def);
+
+    boolean getBoolean(String path);
+
+    boolean getBoolean(String path, boolean def);
+
+    /** Unmodifiable list, or null if the value is not a list. */
+    List<?> getList(String path);
+
+    /** Strings and primitives of the list as strings; empty if there is no list. */
+    List<String> getStringList(String path);
+}
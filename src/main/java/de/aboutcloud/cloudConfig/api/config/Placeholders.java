@@ -0,0 +1,36 @@
+package de.aboutcloud.cloudConfig.api.config;
+
+import java.util.Map;
+import java.util.Objects;
+
+/** Resolves {name} placeholders in messages. */
+@FunctionalInterface
+public interface Placeholders {
+
+    /** Value for {name}, or null to leave the placeholder untouched. */
+    String resolve(String name);
+
+    Placeholders NONE = name -> null;
+
+    /** Alternating name/value pairs, e.g. of("player", p.getName(), "coins", "12"). */
+    static Placeholders of(String... pairs) {
+        if (pairs.length == 0) return NONE;
+        if ((pairs.length & 1) != 0) throw new IllegalArgumentException("Placeholders need name/value pairs");
+        return name -> {
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i].equals(name)) return pairs[i + 1];
+            }
+            return null;
+        };
+    }
+
+    static Placeholders of(Map<String, ?> values) {
+        Objects.requireNonNull(values);
+        if (values.isEmpty()) return NONE;
+        return name -> {
+            Object v = values.get(name);
+            if (v == null && !values.containsKey(name)) return null;
+            return String.valueOf(v);
+        };
+    }
+}
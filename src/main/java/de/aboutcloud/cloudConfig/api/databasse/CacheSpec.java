@@ -0,0 +1,42 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Settings of a {@link DbCache}: weight bound (entries count 1 unless a weigher is set), time to live,
+ * loaders and an optional tagger used by {@link DbCache#invalidateTag(String)}.
+ */
+public record CacheSpec<K, V>(long maxWeight,
+                              Duration ttl,
+                              DbCache.Loader<K, V> loader,
+                              DbCache.BulkLoader<K, V> bulkLoader,
+                              ToLongFunction<? super V> weigher,
+                              Function<? super V, ? extends Collection<String>> tagger) {
+
+    public CacheSpec {
+        if (maxWeight <= 0) throw new IllegalArgumentException("maxWeight must be positive");
+        Objects.requireNonNull(ttl);
+        Objects.requireNonNull(loader);
+    }
+
+    public static <K, V> CacheSpec<K, V> of(long maxSize, Duration ttl, DbCache.Loader<K, V> loader) {
+        return new CacheSpec<>(maxSize, ttl, loader, null, v -> 1, v -> List.of());
+    }
+
+    public CacheSpec<K, V> withBulkLoader(DbCache.BulkLoader<K, V> bulkLoader) {
+        return new CacheSpec<>(maxWeight, ttl, loader, bulkLoader, weigher, tagger);
+    }
+
+    public CacheSpec<K, V> withWeigher(long maxWeight, ToLongFunction<? super V> weigher) {
+        return new CacheSpec<>(maxWeight, ttl, loader, bulkLoader, Objects.requireNonNull(weigher), tagger);
+    }
+
+    public CacheSpec<K, V> withTags(Function<? super V, ? extends Collection<String>> tagger) {
+        return new CacheSpec<>(maxWeight, ttl, loader, bulkLoader, weigher, Objects.requireNonNull(tagger));
+    }
+}
@@ -4,13 +4,27 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 public interface CloudDatabaseService {
     /** Ensure a pool exists for this plugin (creates/updates from database.yml). */
     void ensurePool(JavaPlugin plugin) throws SQLException;
 
+    /**
+     * Like {@link #ensurePool(JavaPlugin)}, but connects and migrates on a worker thread so onEnable
+     * does not block. Until the future completes, server-thread calls fail fast, worker-thread calls
+     * wait, and the async methods queue behind it.
+     */
+    CompletableFuture<Void> ensurePoolAsync(JavaPlugin plugin);
+
+    /** Completes once this plugin's pool is usable; fails if its bootstrap failed. */
+    CompletableFuture<Void> ready(JavaPlugin plugin);
+
     /** Close and remove this plugin’s pool. */
     void close(JavaPlugin plugin);
 
@@ -29,12 +43,68 @@ public interface CloudDatabaseService {
     /** Run a transaction (commit on success, rollback on error). */
     void withTransaction(JavaPlugin plugin, SQLConsumer<Connection> tx) throws SQLException;
 
+    /** Run read-only work on a healthy read replica (falls back to the primary if configured). */
+    <T> T withReadConnection(JavaPlugin plugin, SQLFunction<Connection,T> fn) throws SQLException;
+
+    /** Run a read-only transaction on a healthy read replica (falls back to the primary if configured). */
+    void withReadTransaction(JavaPlugin plugin, SQLConsumer<Connection> tx) throws SQLException;
+
+    /** Run a unit of work on a CloudConfig worker thread; concurrency is bounded by the plugin's pool size. */
+    <T> CompletableFuture<T> withConnectionAsync(JavaPlugin plugin, SQLFunction<Connection, T> fn);
+
+    /** Like {@link #withConnectionAsync(JavaPlugin, SQLFunction)}, optionally completing on the server thread. */
+    <T> CompletableFuture<T> withConnectionAsync(JavaPlugin plugin, SQLFunction<Connection, T> fn, boolean completeOnMainThread);
+
+    /** Run a transaction on a CloudConfig worker thread. */
+    CompletableFuture<Void> withTransactionAsync(JavaPlugin plugin, SQLConsumer<Connection> tx);
+
+    /** Like {@link #withTransactionAsync(JavaPlugin, SQLConsumer)}, optionally completing on the server thread. */
+    CompletableFuture<Void> withTransactionAsync(JavaPlugin plugin, SQLConsumer<Connection> tx, boolean completeOnMainThread);
+
+    /** Named write-behind queue (settings under writeQueues.<name> in database.yml); drained on close. */
+    WriteQueue writeQueue(JavaPlugin plugin, String name);
+
+    /** Pending counts and flush latencies of this plugin's write queues. */
+    Map<String, WriteQueue.Stats> writeQueueStats(JavaPlugin plugin);
+
     /** Run versioned SQL migrations from disk; creates schema version table. */
     void migrate(JavaPlugin plugin) throws SQLException;
 
     /** Replace vars like ${plugin} in SQL before execution. */
     void setSqlVariables(JavaPlugin plugin, Map<String, String> vars);
 
+    /** Run config/db/queries/<name>.sql as a prepared query and map its result. */
+    <T> T query(JavaPlugin plugin, String name, SQLFunction<ResultSet, T> mapper, Object... params) throws SQLException;
+
+    /** Run config/db/queries/<name>.sql as a prepared update; returns the update count. */
+    int update(JavaPlugin plugin, String name, Object... params) throws SQLException;
+
+    /**
+     * Lazily streams the rows of {@code sql} through {@code mapper}, fetching streaming.fetchSize rows at a time.
+     * The stream holds a connection until it is exhausted or closed, so use try-with-resources;
+     * errors while reading surface as {@link UncheckedSQLException}.
+     */
+    <T> Stream<T> stream(JavaPlugin plugin, String sql, RowMapper<T> mapper, Object... params) throws SQLException;
+
+    /** Like {@link #stream(JavaPlugin, String, RowMapper, Object...)} with an explicit fetch size. */
+    <T> Stream<T> stream(JavaPlugin plugin, String sql, int fetchSize, RowMapper<T> mapper, Object... params) throws SQLException;
+
+    /** Streams the rows of {@code sql} and hands them to {@code chunk} in lists of up to {@code chunkSize}; returns the row count. */
+    <T> long forEachChunk(JavaPlugin plugin, String sql, int chunkSize, RowMapper<T> mapper,
+                          SQLConsumer<List<T>> chunk, Object... params) throws SQLException;
+
+    /** Connection counts, acquire/transaction latency and rollbacks of this plugin's pool. */
+    PoolStats poolStats(JavaPlugin plugin);
+
+    /** Call counts and latency histograms of this plugin's named queries. */
+    Map<String, QueryStats> queryStats(JavaPlugin plugin);
+
+    /** Named read-through cache; the spec of the first call for a name wins. */
+    <K, V> DbCache<K, V> cache(JavaPlugin plugin, String name, CacheSpec<K, V> spec);
+
+    /** Hit, miss and load statistics of this plugin's caches. */
+    Map<String, DbCache.Stats> cacheStats(JavaPlugin plugin);
+
     @FunctionalInterface interface SQLFunction<C, R> { R apply(C c) throws SQLException; }
     @FunctionalInterface interface SQLConsumer<C> { void accept(C c) throws SQLException; }
 }
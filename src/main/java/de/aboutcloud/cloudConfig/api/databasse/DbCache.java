@@ -0,0 +1,54 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Read-through cache in front of the plugin's database.
+ * Missing keys are loaded through the {@link CacheSpec}'s loaders; absent rows are cached as absent.
+ */
+public interface DbCache<K, V> {
+
+    /** Cached value or a load from the database; null if the row does not exist. */
+    V get(K key) throws SQLException;
+
+    /** Cached values plus one bulk load for all missing keys; absent keys are left out. */
+    Map<K, V> getAll(Collection<? extends K> keys) throws SQLException;
+
+    /** Cached value without loading, or null. */
+    V getIfPresent(K key);
+
+    void put(K key, V value);
+
+    void invalidate(K key);
+
+    /** Drop every entry whose value was tagged with {@code tag} by the spec's tagger. */
+    void invalidateTag(String tag);
+
+    void invalidateAll();
+
+    Stats stats();
+
+    /** "(?,?,?)" for an IN clause with {@code n} parameters. */
+    static String inClause(int n) {
+        if (n <= 0) throw new IllegalArgumentException("IN clause needs at least one parameter");
+        StringBuilder sb = new StringBuilder(n * 2 + 1).append('(');
+        for (int i = 0; i < n; i++) sb.append(i == 0 ? "?" : ",?");
+        return sb.append(')').toString();
+    }
+
+    @FunctionalInterface interface Loader<K, V> { V load(Connection c, K key) throws SQLException; }
+
+    /** Loads many keys at once, typically with {@code WHERE id IN } + {@link #inClause(int)}. */
+    @FunctionalInterface interface BulkLoader<K, V> { Map<K, V> loadAll(Connection c, Collection<? extends K> keys) throws SQLException; }
+
+    record Stats(String name, long size, long weight, long hits, long misses, long loads, long loadFailures,
+                 long evictions, double avgLoadMillis) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+/**
+ * Snapshot of one plugin's pool: connection counts, acquire wait, connection hold time,
+ * transaction latency (percentiles are bucket upper bounds) and circuit breaker state.
+ */
+public record PoolStats(String plugin, boolean shared, int active, int idle, int pending, int max,
+                        long acquires, long acquireTimeouts, double acquireMeanMillis, double acquireP95Millis, double acquireMaxMillis,
+                        double usageMeanMillis, double usageP95Millis,
+                        long transactions, long rollbacks, long slowTransactions,
+                        double txMeanMillis, double txP95Millis, double txMaxMillis, long txRetries,
+                        boolean circuitOpen, long circuitOpens, long rejected) {}
@@ -0,0 +1,5 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+/** Call count and latency distribution of one named query (percentiles are bucket upper bounds). */
+public record QueryStats(String name, long calls, long errors,
+                         double meanMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {}
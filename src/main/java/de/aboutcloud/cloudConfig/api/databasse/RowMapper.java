@@ -0,0 +1,10 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps the current row of a result set; must not call {@code next()}. Stateless mappers can be shared. */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs, int rowNum) throws SQLException;
+}
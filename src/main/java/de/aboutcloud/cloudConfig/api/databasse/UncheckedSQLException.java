@@ -0,0 +1,15 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+import java.sql.SQLException;
+
+/** A {@link SQLException} raised while consuming a lazy row stream. */
+public final class UncheckedSQLException extends RuntimeException {
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,28 @@
+package de.aboutcloud.cloudConfig.api.databasse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Write-behind queue for small, frequent statements.
+ * Statements are written in order; consecutive statements with the same SQL go out as one JDBC batch.
+ */
+public interface WriteQueue {
+
+    /**
+     * Queue a parameterized statement, e.g. add("UPDATE stats SET kills=kills+? WHERE uuid=?", 1, uuid).
+     * Throws IllegalStateException when maxPending statements are already waiting or the queue is closed.
+     */
+    void add(String sql, Object... params);
+
+    /** Statements waiting to be written. */
+    int pending();
+
+    /** Write everything queued so far; completes once it is committed. */
+    CompletableFuture<Void> flush();
+
+    Stats stats();
+
+    /** dropped: statements that failed permanently (logged); rejected: adds refused because the queue was full. */
+    record Stats(int pending, long written, long batches, long failedFlushes, long dropped, long rejected,
+                 long lastFlushMillis, long maxFlushMillis, double avgFlushMillis) {}
+}
@@ -1,6 +1,9 @@
 package de.aboutcloud.cloudConfig.command;
 
 import de.aboutcloud.cloudConfig.api.config.CloudConfigService;
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import de.aboutcloud.cloudConfig.api.databasse.PoolStats;
+import de.aboutcloud.cloudConfig.core.BlockingProfiler;
 import de.aboutcloud.cloudConfig.util.YamlUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -16,9 +19,13 @@ import java.util.Set;
 
 public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
     private final CloudConfigService service;
+    private final CloudDatabaseService dbService;
+    private final BlockingProfiler profiler;
 
-    public CloudConfigCommand(CloudConfigService service) {
+    public CloudConfigCommand(CloudConfigService service, CloudDatabaseService dbService, BlockingProfiler profiler) {
         this.service = service;
+        this.dbService = dbService;
+        this.profiler = profiler;
     }
 
     @Override
@@ -28,7 +35,7 @@ public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         if (args.length == 0) {
-            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " <reload|listlocales|set> ...");
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " <reload|listlocales|set|watch|db|profile|fleet> ...");
             return true;
         }
         switch (args[0].toLowerCase(Locale.ROOT)) {
@@ -46,6 +53,86 @@ public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
                 Set<Locale> locales = service.getAvailableLocales(plugin);
                 sender.sendMessage(ChatColor.AQUA + "Locales for " + plugin.getName() + ": " + locales);
             }
+            case "watch" -> {
+                if (args.length < 3 || !(args[2].equalsIgnoreCase("on") || args[2].equalsIgnoreCase("off"))) {
+                    return usage(sender, label, "watch <PluginName> <on|off>");
+                }
+                JavaPlugin plugin = requirePlugin(sender, args[1]);
+                if (plugin == null) return true;
+                boolean on = args[2].equalsIgnoreCase("on");
+                service.setWatching(plugin, on);
+                sender.sendMessage(ChatColor.GREEN + (on ? "Watching" : "Stopped watching") + " files of " + plugin.getName());
+            }
+            case "db" -> {
+                if (args.length < 3 || !args[1].equalsIgnoreCase("stats")) return usage(sender, label, "db stats <PluginName>");
+                JavaPlugin plugin = requirePlugin(sender, args[2]);
+                if (plugin == null) return true;
+                try {
+                    sendDbStats(sender, plugin);
+                } catch (IllegalStateException e) {
+                    sender.sendMessage(ChatColor.RED + e.getMessage());
+                }
+            }
+            case "fleet" -> {
+                if (args.length < 3) return usage(sender, label, "fleet <PluginName> <push|on|off|status>");
+                JavaPlugin plugin = requirePlugin(sender, args[1]);
+                if (plugin == null) return true;
+                try {
+                    switch (args[2].toLowerCase(Locale.ROOT)) {
+                        case "push" -> service.publishToFleet(plugin).whenComplete((n, ex) -> Bukkit.getScheduler().runTask(plugin, () ->
+                                sender.sendMessage(ex != null
+                                        ? ChatColor.RED + "Publish failed: " + ex.getCause().getMessage()
+                                        : ChatColor.GREEN + "Published " + n + " changed file(s) of " + plugin.getName())));
+                        case "on", "off" -> {
+                            boolean on = args[2].equalsIgnoreCase("on");
+                            service.setFleetSync(plugin, on);
+                            sender.sendMessage(ChatColor.GREEN + (on ? "Syncing" : "Stopped syncing") + " files of " + plugin.getName() + " with the fleet");
+                        }
+                        case "status" -> sender.sendMessage(ChatColor.AQUA + plugin.getName() + " is at fleet version " + service.fleetVersion(plugin));
+                        default -> usage(sender, label, "fleet <PluginName> <push|on|off|status>");
+                    }
+                } catch (IllegalStateException e) {
+                    sender.sendMessage(ChatColor.RED + e.getMessage());
+                }
+            }
+            case "profile" -> {
+                String sub = args.length < 2 ? "top" : args[1].toLowerCase(Locale.ROOT);
+                switch (sub) {
+                    case "on", "off" -> {
+                        profiler.setEnabled(sub.equals("on"));
+                        sender.sendMessage(ChatColor.GREEN + "Server-thread profiling " + (sub.equals("on") ? "enabled" : "disabled"));
+                    }
+                    case "reset" -> {
+                        profiler.reset();
+                        sender.sendMessage(ChatColor.GREEN + "Profile cleared");
+                    }
+                    case "strict" -> {
+                        if (args.length < 3) return usage(sender, label, "profile strict <off|warn|throw> [thresholdMs]");
+                        BlockingProfiler.Strict mode;
+                        long ms;
+                        try {
+                            mode = BlockingProfiler.Strict.valueOf(args[2].toUpperCase(Locale.ROOT));
+                            ms = args.length > 3 ? Long.parseLong(args[3]) : profiler.thresholdMillis();
+                        } catch (IllegalArgumentException e) {
+                            return usage(sender, label, "profile strict <off|warn|throw> [thresholdMs]");
+                        }
+                        profiler.setStrict(mode, ms);
+                        sender.sendMessage(ChatColor.GREEN + "Strict mode " + mode.name().toLowerCase(Locale.ROOT) + " at " + ms + " ms");
+                    }
+                    case "top" -> {
+                        int limit = 10;
+                        if (args.length > 2) {
+                            try {
+                                limit = Math.max(1, Integer.parseInt(args[2]));
+                            } catch (NumberFormatException e) {
+                                return usage(sender, label, "profile top [n]");
+                            }
+                        }
+                        sendProfile(sender, limit);
+                    }
+                    default -> usage(sender, label, "profile <on|off|top|reset|strict>");
+                }
+            }
             case "set" -> {
                 // /cloudconfig set <PluginName> <configFile.yml|locale/<tag>.yml> <path> <value...>
                 if (args.length < 5) return usage(sender, label, "set <PluginName> <file> <path> <value...>");
@@ -62,8 +149,8 @@ public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
                         sender.sendMessage(ChatColor.RED + "Path not found (parent may be missing): " + path);
                         return true;
                     }
-                    YamlUtil.setSmart(cfg, path, value);
-                    service.saveConfig(plugin, file);
+                    // edit a copy so readers of the live config never see the change half-applied
+                    service.updateConfig(plugin, file, copy -> YamlUtil.setSmart(copy, path, value));
                     sender.sendMessage(ChatColor.GREEN + "Set " + path + " = " + value + " in " + file);
                     return true;
                 }
@@ -88,11 +175,48 @@ public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
 
                 sender.sendMessage(ChatColor.RED + "Unknown file type: " + file);
             }
-            default -> usage(sender, label, "<reload|listlocales|set>");
+            default -> usage(sender, label, "<reload|listlocales|set|watch|db|profile|fleet>");
         }
         return true;
     }
 
+    private void sendDbStats(CommandSender s, JavaPlugin plugin) {
+        PoolStats p = dbService.poolStats(plugin);
+        s.sendMessage(ChatColor.AQUA + "Pool of " + plugin.getName() + (p.shared() ? " (shared)" : "") + ": "
+                + ChatColor.WHITE + p.active() + " active, " + p.idle() + " idle, " + p.pending() + " waiting, max " + p.max());
+        s.sendMessage(ChatColor.GRAY + " acquire: " + p.acquires() + " (" + p.acquireTimeouts() + " timeouts), "
+                + ms(p.acquireMeanMillis()) + " mean, " + ms(p.acquireP95Millis()) + " p95, " + ms(p.acquireMaxMillis()) + " max");
+        s.sendMessage(ChatColor.GRAY + " held: " + ms(p.usageMeanMillis()) + " mean, " + ms(p.usageP95Millis()) + " p95");
+        s.sendMessage(ChatColor.GRAY + " transactions: " + p.transactions() + " (" + p.rollbacks() + " rolled back, "
+                + p.slowTransactions() + " slow), " + ms(p.txMeanMillis()) + " mean, " + ms(p.txP95Millis()) + " p95, "
+                + ms(p.txMaxMillis()) + " max, " + p.txRetries() + " retries");
+        s.sendMessage((p.circuitOpen() ? ChatColor.RED + " circuit: OPEN" : ChatColor.GRAY + " circuit: closed")
+                + ChatColor.GRAY + ", opened " + p.circuitOpens() + "x, " + p.rejected() + " calls rejected");
+        dbService.queryStats(plugin).forEach((name, q) -> s.sendMessage(ChatColor.GRAY + " query " + name + ": " + q.calls()
+                + " calls, " + q.errors() + " errors, " + ms(q.p50Millis()) + " p50, " + ms(q.p99Millis()) + " p99"));
+    }
+
+    private void sendProfile(CommandSender s, int limit) {
+        s.sendMessage(ChatColor.AQUA + "Server-thread time in CloudConfig calls" + ChatColor.GRAY + " (profiling "
+                + (profiler.isEnabled() ? "on" : "off") + ", strict " + profiler.strict().name().toLowerCase(Locale.ROOT)
+                + " at " + profiler.thresholdMillis() + " ms)");
+        List<BlockingProfiler.Row> rows = profiler.report(limit);
+        if (rows.isEmpty()) {
+            s.sendMessage(ChatColor.GRAY + " nothing recorded");
+            return;
+        }
+        int rank = 1;
+        for (BlockingProfiler.Row r : rows) {
+            s.sendMessage(ChatColor.WHITE + " " + rank++ + ". " + r.plugin() + " " + r.operation() + ChatColor.GRAY + ": "
+                    + r.calls() + " calls, " + ms(r.totalMillis()) + " total, " + ms(r.maxMillis()) + " max");
+            s.sendMessage(ChatColor.DARK_GRAY + "    at " + r.topCallSite());
+        }
+    }
+
+    private static String ms(double millis) {
+        return String.format(Locale.ROOT, "%.1fms", millis);
+    }
+
     private boolean usage(CommandSender s, String l, String u) {
         s.sendMessage(ChatColor.YELLOW + "Usage: /" + l + " " + u);
         return true;
@@ -120,9 +244,19 @@ public final class CloudConfigCommand implements CommandExecutor, TabCompleter {
     public List<String> onTabComplete(CommandSender s, Command c, String l, String[] a) {
         List<String> out = new ArrayList<>();
         switch (a.length) {
-            case 1 -> out = List.of("reload","listlocales","set");
+            case 1 -> out = List.of("reload","listlocales","set","watch","db","profile","fleet");
             case 2 -> {
-                for (Plugin p : Bukkit.getPluginManager().getPlugins()) out.add(p.getName());
+                if (a[0].equalsIgnoreCase("db")) out = List.of("stats");
+                else if (a[0].equalsIgnoreCase("profile")) out = List.of("on","off","top","reset","strict");
+                else for (Plugin p : Bukkit.getPluginManager().getPlugins()) out.add(p.getName());
+            }
+            case 3 -> {
+                if (a[0].equalsIgnoreCase("watch")) out = List.of("on","off");
+                else if (a[0].equalsIgnoreCase("fleet")) out = List.of("push","on","off","status");
+                else if (a[0].equalsIgnoreCase("profile") && a[1].equalsIgnoreCase("strict")) out = List.of("off","warn","throw");
+                else if (a[0].equalsIgnoreCase("db")) {
+                    for (Plugin p : Bukkit.getPluginManager().getPlugins()) out.add(p.getName());
+                }
             }
             default -> {}
         }
@@ -0,0 +1,243 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import de.aboutcloud.cloudConfig.api.databasse.WriteQueue;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flushes when {@code maxBatchSize} statements are pending or the oldest one is {@code maxAgeMs} old.
+ * A flush that fails with a transient or connection error puts its statements back at the head of
+ * the queue and is retried after the age window. Any other error is narrowed down to the failing
+ * statements, which are logged and dropped so they cannot block the queue. At most
+ * {@code maxPending} statements are held; {@link #add} rejects more.
+ */
+final class BatchWriteQueue implements WriteQueue {
+    private final JavaPlugin plugin;
+    private final String name;
+    private final CloudDatabaseService db;
+    private final Executor exec;
+    private final ScheduledExecutorService timer;
+    private final Logger log;
+    private final int maxBatchSize;
+    private final long maxAgeMs;
+    private final int maxPending;
+    private volatile boolean closed;
+
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>(); // guarded by this
+    private boolean timerArmed; // guarded by this
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    private record Entry(String sql, Object[] params) {}
+
+    BatchWriteQueue(JavaPlugin plugin, String name, CloudDatabaseService db, Executor exec,
+                    ScheduledExecutorService timer, Logger log, int maxBatchSize, long maxAgeMs, int maxPending) {
+        this.plugin = plugin;
+        this.name = name;
+        this.db = db;
+        this.exec = exec;
+        this.timer = timer;
+        this.log = log;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxAgeMs = Math.max(1, maxAgeMs);
+        this.maxPending = Math.max(this.maxBatchSize, maxPending);
+    }
+
+    @Override
+    public void add(String sql, Object... params) {
+        Objects.requireNonNull(sql);
+        if (closed) throw new IllegalStateException("Write queue " + plugin.getName() + "/" + name + " is closed");
+        boolean full;
+        synchronized (this) {
+            if (queue.size() >= maxPending) {
+                rejected.incrementAndGet();
+                throw new IllegalStateException("Write queue " + plugin.getName() + "/" + name + " is full ("
+                        + maxPending + " pending writes); is the database reachable?");
+            }
+            queue.addLast(new Entry(sql, params.clone()));
+            full = queue.size() >= maxBatchSize;
+            if (!full) armTimer();
+        }
+        if (full) {
+            try {
+                exec.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Write queue " + plugin.getName() + "/" + name + " is closed", e);
+            }
+        }
+    }
+
+    /** Rejects further adds; pending statements stay for a final {@link #drain}. */
+    void close() {
+        closed = true;
+    }
+
+    @Override
+    public synchronized int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                drain();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, exec);
+    }
+
+    @Override
+    public Stats stats() {
+        long n = flushes.get();
+        return new Stats(pending(), written.get(), batches.get(), failedFlushes.get(), dropped.get(), rejected.get(),
+                TimeUnit.NANOSECONDS.toMillis(lastFlushNanos), TimeUnit.NANOSECONDS.toMillis(maxFlushNanos),
+                n == 0 ? 0 : totalFlushNanos.get() / 1e6 / n);
+    }
+
+    String name() { return name; }
+
+    private void armTimer() {
+        if (timerArmed || closed) return;
+        try {
+            timer.schedule(() -> exec.execute(this::flushQuietly), maxAgeMs, TimeUnit.MILLISECONDS);
+            timerArmed = true;
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Write queue " + plugin.getName() + "/" + name + " is closed", e);
+        }
+    }
+
+    private void flushQuietly() {
+        if (!db.ready(plugin).isDone()) {
+            // pool is being (re)built; the bootstrap drains us itself, so do not block a worker on it
+            synchronized (this) {
+                armTimer();
+            }
+            return;
+        }
+        try {
+            drain();
+        } catch (SQLException e) {
+            log.warn("[CloudConfig] Write queue {}/{} flush failed, retrying in {} ms: {}", plugin.getName(), name, maxAgeMs, e.toString());
+        }
+    }
+
+    /** Writes until the queue is empty on the calling thread; one flush per queue at a time. */
+    void drain() throws SQLException {
+        flushLock.lock();
+        try {
+            while (true) {
+                List<Entry> chunk = new ArrayList<>();
+                synchronized (this) {
+                    timerArmed = false;
+                    while (!queue.isEmpty() && chunk.size() < maxBatchSize) chunk.add(queue.pollFirst());
+                }
+                if (chunk.isEmpty()) return;
+                write(chunk);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<Entry> chunk) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int[] sent = new int[1];
+            db.withTransaction(plugin, c -> sent[0] = writeBatches(c, chunk));
+            batches.addAndGet(sent[0]);
+            written.addAndGet(chunk.size());
+        } catch (SQLException | RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            if (isTransient(e)) {
+                requeue(chunk, 0);
+                throw e instanceof SQLException se ? se : new SQLException(e);
+            }
+            writeOneByOne(chunk);
+        } finally {
+            long took = System.nanoTime() - start;
+            flushes.incrementAndGet();
+            totalFlushNanos.addAndGet(took);
+            lastFlushNanos = took;
+            if (took > maxFlushNanos) maxFlushNanos = took;
+        }
+    }
+
+    /**
+     * After a permanent error the chunk was rolled back as a whole; writes each statement in its own
+     * transaction to drop only the ones that fail. Stops and requeues the rest on a transient error.
+     */
+    private void writeOneByOne(List<Entry> chunk) throws SQLException {
+        for (int i = 0; i < chunk.size(); i++) {
+            Entry e = chunk.get(i);
+            try {
+                db.withTransaction(plugin, c -> writeBatches(c, List.of(e)));
+                batches.incrementAndGet();
+                written.incrementAndGet();
+            } catch (SQLException | RuntimeException ex) {
+                if (isTransient(ex)) {
+                    requeue(chunk, i);
+                    throw ex instanceof SQLException se ? se : new SQLException(ex);
+                }
+                dropped.incrementAndGet();
+                log.error("[CloudConfig] Write queue {}/{} dropped a statement that cannot succeed: {} ({} params): {}",
+                        plugin.getName(), name, e.sql, e.params.length, ex.toString());
+            }
+        }
+    }
+
+    private void requeue(List<Entry> chunk, int from) {
+        synchronized (this) {
+            for (int i = chunk.size() - 1; i >= from; i--) queue.addFirst(chunk.get(i));
+            if (!closed) armTimer();
+        }
+    }
+
+    /** Worth retrying: lost connections, open circuit, deadlocks, or the pool being (re)started. */
+    private static boolean isTransient(Exception e) {
+        if (e instanceof SQLException se) return CircuitBreaker.isRetryable(se);
+        return e instanceof IllegalStateException;
+    }
+
+    /** Consecutive entries with the same SQL share one PreparedStatement batch; order is preserved. */
+    private static int writeBatches(Connection c, List<Entry> chunk) throws SQLException {
+        int sent = 0;
+        int i = 0;
+        while (i < chunk.size()) {
+            String sql = chunk.get(i).sql;
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                while (i < chunk.size() && chunk.get(i).sql.equals(sql)) {
+                    Object[] params = chunk.get(i).params;
+                    for (int p = 0; p < params.length; p++) ps.setObject(p + 1, params[p]);
+                    ps.addBatch();
+                    i++;
+                }
+                ps.executeBatch();
+                sent++;
+            }
+        }
+        return sent;
+    }
+}
@@ -0,0 +1,183 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long blocking CloudConfig calls (database work, config saves and reloads) hold the
+ * server thread. Off-thread calls are free; nested calls are attributed to the outermost one.
+ * Statistics are kept per calling plugin and operation, with a sampled call site (every
+ * {@value #SAMPLE_EVERY}th call, and every call over the strict threshold).
+ * <p>
+ * Defaults come from {@code -Dcloudconfig.profile=true}, {@code -Dcloudconfig.profile.strict=warn|throw}
+ * and {@code -Dcloudconfig.profile.thresholdMs=<ms>}; {@code /cloudconfig profile} changes them at runtime.
+ * THROW fails a slow call only after its work has completed (a save is written, a transaction is
+ * committed), so the exception reports the offender but does not undo or prevent the work.
+ */
+public final class BlockingProfiler {
+    public enum Strict { OFF, WARN, THROW }
+
+    /** One row of the report, ranked by total blocked time. */
+    public record Row(String plugin, String operation, long calls, double totalMillis, double maxMillis, String topCallSite) {}
+
+    private static final long NOT_TRACKED = Long.MIN_VALUE;
+    private static final long NESTED = Long.MIN_VALUE + 1;
+    private static final int SAMPLE_EVERY = 16;
+    private static final int MAX_SITES = 32;
+    private static final String OWN_PACKAGE = "de.aboutcloud.cloudConfig.";
+
+    private final Logger log;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile Strict strict;
+    private volatile long thresholdNanos;
+    private int depth; // server thread only
+    private String failure; // server thread only: THROW message of the last outermost call
+
+    public BlockingProfiler(Logger log) {
+        this.log = log;
+        this.enabled = Boolean.getBoolean("cloudconfig.profile");
+        this.strict = parseStrict(System.getProperty("cloudconfig.profile.strict", "off"));
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("cloudconfig.profile.thresholdMs", 5));
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Strict strict() { return strict; }
+
+    public long thresholdMillis() { return TimeUnit.NANOSECONDS.toMillis(thresholdNanos); }
+
+    /** WARN logs, THROW fails server-thread calls slower than {@code thresholdMs} once their work is done. */
+    public void setStrict(Strict mode, long thresholdMs) {
+        this.strict = mode;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    private Strict parseStrict(String value) {
+        try {
+            return Strict.valueOf(value.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("[CloudConfig] Unknown cloudconfig.profile.strict '{}', using off (expected off, warn or throw)", value);
+            return Strict.OFF;
+        }
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    public List<Row> report(int limit) {
+        List<Row> rows = new ArrayList<>();
+        for (Entry e : entries.values()) rows.add(e.row());
+        rows.sort(Comparator.comparingDouble(Row::totalMillis).reversed());
+        return rows.size() > limit ? List.copyOf(rows.subList(0, limit)) : rows;
+    }
+
+    /** Start of a blocking call; pass the result to {@link #exit} and, after a normal return, {@link #failIfSlow}. */
+    long enter() {
+        if (!enabled || !Bukkit.isPrimaryThread()) return NOT_TRACKED;
+        if (depth++ > 0) return NESTED;
+        failure = null;
+        return System.nanoTime();
+    }
+
+    /** End of a blocking call, for a {@code finally} block: records it and never throws. */
+    void exit(long start, JavaPlugin plugin, String operation) {
+        if (start == NOT_TRACKED) return;
+        depth--;
+        if (start == NESTED) return;
+        long nanos = System.nanoTime() - start;
+        String name = plugin == null ? "?" : plugin.getName();
+        Entry e = entries.computeIfAbsent(name + '\0' + operation, k -> new Entry(name, operation));
+        long n = e.record(nanos);
+        boolean slow = strict != Strict.OFF && nanos >= thresholdNanos;
+        if (!slow && n % SAMPLE_EVERY != 1) return;
+        String site = callSite();
+        e.sample(site);
+        if (!slow) return;
+        String msg = name + " blocked the server thread for " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms in "
+                + operation + " at " + site;
+        if (strict == Strict.THROW) failure = msg;
+        else log.warn("[CloudConfig] {}", msg);
+    }
+
+    /**
+     * In THROW mode, fails a slow call once it has returned normally (a call that threw keeps its own
+     * exception): meant for test servers, to turn offenders into stack traces.
+     */
+    void failIfSlow(long start) {
+        if (start == NOT_TRACKED || start == NESTED || failure == null) return;
+        String msg = failure;
+        failure = null;
+        throw new IllegalStateException(msg);
+    }
+
+    /** {@link #failIfSlow}, closing {@code opened} first, since the caller never gets to. */
+    void failIfSlow(long start, AutoCloseable opened) {
+        try {
+            failIfSlow(start);
+        } catch (IllegalStateException e) {
+            try {
+                opened.close();
+            } catch (Exception ce) {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith(OWN_PACKAGE))
+                .findFirst()
+                .map(f -> f.toStackTraceElement().toString())
+                .orElse("?"));
+    }
+
+    private static final class Entry {
+        final String plugin;
+        final String operation;
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+        Entry(String plugin, String operation) {
+            this.plugin = plugin;
+            this.operation = operation;
+        }
+
+        long record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            return calls.sum();
+        }
+
+        void sample(String site) {
+            LongAdder c = sites.get(site);
+            if (c == null) {
+                if (sites.size() >= MAX_SITES) return;
+                c = sites.computeIfAbsent(site, k -> new LongAdder());
+            }
+            c.increment();
+        }
+
+        Row row() {
+            String top = sites.entrySet().stream()
+                    .max(Comparator.comparingLong(s -> s.getValue().sum()))
+                    .map(Map.Entry::getKey)
+                    .orElse("?");
+            return new Row(plugin, operation, calls.sum(), totalNanos.sum() / 1e6, maxNanos.get() / 1e6, top);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.ConfigBinding;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+final class BoundConfig<T extends Record> implements ConfigBinding<T> {
+    final String fileName;
+    final String path;
+    private final Class<T> type;
+    private volatile T value;
+    private long version = -1; // config version the value was built from
+
+    BoundConfig(String fileName, String path, Class<T> type) {
+        this.fileName = fileName;
+        this.path = path == null ? "" : path;
+        this.type = type;
+    }
+
+    @Override public T get() { return value; }
+
+    @Override public Class<T> type() { return type; }
+
+    /**
+     * Rebuilds from {@code cfg} unless the value was already built from this or a newer version
+     * (see {@link PerPluginState#version}); throws on type errors.
+     */
+    synchronized boolean refresh(FileConfiguration cfg, long cfgVersion) {
+        if (cfgVersion <= version) return false;
+        ConfigurationSection sec = path.isEmpty() ? cfg : cfg.getConfigurationSection(path);
+        if (sec == null) throw new IllegalArgumentException("Cannot bind " + type.getSimpleName() + ": section '" + path + "' not found");
+        value = ConfigBinder.bind(sec, type, path);
+        version = cfgVersion;
+        return true;
+    }
+}
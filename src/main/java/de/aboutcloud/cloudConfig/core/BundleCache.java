@@ -0,0 +1,107 @@
+package de.aboutcloud.cloudConfig.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary copies of parsed locale bundles under plugins/<PluginName>/.cache/locale.
+ * A snapshot is used only if size, mtime and CRC32C of the source file still match;
+ * otherwise the YAML is parsed and the snapshot rewritten.
+ */
+final class BundleCache {
+    private static final int MAGIC = 0x43434C42; // "CCLB"
+    private static final int FORMAT = 1;
+
+    private BundleCache() {}
+
+    static Path dir(Path dataFolder) {
+        return dataFolder.resolve(".cache").resolve("locale");
+    }
+
+    static LocaleBundle load(Path source, Path cacheDir) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+        byte[] bytes = Files.readAllBytes(source);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        Key key = new Key(bytes.length, attrs.lastModifiedTime().toMillis(), crc.getValue());
+
+        Path snap = cacheDir.resolve(source.getFileName() + ".bin");
+        LocaleBundle cached = read(snap, key);
+        if (cached != null) return cached;
+
+        LocaleBundle parsed = LocaleBundle.parse(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+        try {
+            write(snap, key, parsed);
+        } catch (IOException ignored) {
+            // the snapshot is only an optimisation
+        }
+        return parsed;
+    }
+
+    /** Removes snapshots whose locale file no longer exists. */
+    static void prune(Path cacheDir, Set<String> sourceNames) {
+        if (Files.notExists(cacheDir)) return;
+        try (var stream = Files.list(cacheDir)) {
+            for (Path p : stream.toList()) {
+                String n = p.getFileName().toString();
+                if (n.endsWith(".bin") && !sourceNames.contains(n.substring(0, n.length() - 4))) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        } catch (IOException ignored) {}
+    }
+
+    private static LocaleBundle read(Path snap, Key key) {
+        if (Files.notExists(snap)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snap)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) return null;
+            if (!key.equals(new Key(in.readLong(), in.readLong(), in.readLong()))) return null;
+            int n = in.readInt();
+            Map<String, String> entries = new HashMap<>(n * 4 / 3 + 1);
+            for (int i = 0; i < n; i++) {
+                entries.put(readString(in), readString(in));
+            }
+            return LocaleBundle.of(entries);
+        } catch (IOException | RuntimeException e) {
+            return null; // corrupt or truncated, reparse
+        }
+    }
+
+    private static void write(Path snap, Key key, LocaleBundle bundle) throws IOException {
+        Files.createDirectories(snap.getParent());
+        Path tmp = snap.resolveSibling(snap.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(key.size);
+            out.writeLong(key.mtime);
+            out.writeLong(key.hash);
+            out.writeInt(bundle.entries().size());
+            for (var e : bundle.entries().entrySet()) {
+                writeString(out, e.getKey());
+                writeString(out, e.getValue());
+            }
+        }
+        Files.move(tmp, snap, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private record Key(long size, long mtime, long hash) {}
+}
@@ -0,0 +1,119 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.slf4j.Logger;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-pool circuit breaker. Opens after {@code threshold} consecutive connection-class failures,
+ * then rejects every acquire immediately instead of letting callers wait out the pool timeout.
+ * While open, a background probe checks the database and closes the breaker once it answers.
+ */
+final class CircuitBreaker {
+    private final String plugin;
+    private final DataSource probeTarget;
+    private final PoolMetrics metrics;
+    private final Logger log;
+    private final ScheduledExecutorService timer;
+    private final Executor worker;
+    private final int threshold;
+    private final long probeIntervalMs;
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile boolean open;
+    private volatile long openedAt;
+    private volatile boolean stopped;
+
+    CircuitBreaker(String plugin, DataSource probeTarget, PoolMetrics metrics, Logger log,
+                   ScheduledExecutorService timer, Executor worker, int threshold, long probeIntervalMs) {
+        this.plugin = plugin;
+        this.probeTarget = probeTarget;
+        this.metrics = metrics;
+        this.log = log;
+        this.timer = timer;
+        this.worker = worker;
+        this.threshold = threshold;
+        this.probeIntervalMs = Math.max(100, probeIntervalMs);
+    }
+
+    boolean isOpen() { return open; }
+
+    /** Throws right away while open. */
+    void check() throws SQLException {
+        if (!open) return;
+        metrics.rejected.increment();
+        throw new SQLTransientConnectionException("Database of " + plugin + " is unavailable (circuit open for "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt) + " ms), failing fast", "08000");
+    }
+
+    void success() {
+        if (failures.get() != 0) failures.set(0);
+    }
+
+    void failure(SQLException e) {
+        if (threshold <= 0 || !isConnectionError(e)) return;
+        if (failures.incrementAndGet() >= threshold) trip(e);
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    private synchronized void trip(SQLException cause) {
+        if (open || stopped) return;
+        open = true;
+        openedAt = System.nanoTime();
+        metrics.circuitOpens.increment();
+        log.warn("[CloudConfig] Circuit for {} opened after {} consecutive failures ({}); failing fast until the database answers",
+                plugin, failures.get(), cause.getMessage());
+        scheduleProbe();
+    }
+
+    private void scheduleProbe() {
+        if (stopped) return;
+        try {
+            // the timer is shared; the probe blocks up to the connection timeout, so it runs on a worker
+            timer.schedule(() -> worker.execute(this::probe), probeIntervalMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // shutting down
+        }
+    }
+
+    private void probe() {
+        try (Connection c = probeTarget.getConnection()) {
+            if (c.isValid(2)) {
+                long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt);
+                failures.set(0);
+                open = false;
+                log.info("[CloudConfig] Circuit for {} closed, database is back after {} ms", plugin, ms);
+                return;
+            }
+        } catch (SQLException | RuntimeException ignored) {
+            // still down
+        }
+        scheduleProbe();
+    }
+
+    /** Errors that say the database is unreachable, as opposed to a problem with the statement itself. */
+    static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return (state != null && state.startsWith("08"))
+                || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException;
+    }
+
+    /** Deadlocks, lock wait timeouts, serialization failures and lost connections: worth running the transaction again. */
+    static boolean isRetryable(SQLException e) {
+        int code = e.getErrorCode();
+        return "40001".equals(e.getSQLState())
+                || code == 1213 || code == 1205
+                || e instanceof SQLTransactionRollbackException
+                || isConnectionError(e);
+    }
+}
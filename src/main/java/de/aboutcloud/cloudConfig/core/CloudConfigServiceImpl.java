@@ -2,38 +2,104 @@ package de.aboutcloud.cloudConfig.core;
 
 import de.aboutcloud.cloudConfig.api.config.CloudConfigRegistration;
 import de.aboutcloud.cloudConfig.api.config.CloudConfigService;
+import de.aboutcloud.cloudConfig.api.config.ConfigBinding;
+import de.aboutcloud.cloudConfig.api.config.ConfigView;
+import de.aboutcloud.cloudConfig.api.config.Placeholders;
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
 import de.aboutcloud.cloudConfig.util.LocaleUtil;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public final class CloudConfigServiceImpl implements CloudConfigService {
     private final JavaPlugin cloudConfigPlugin;
     private final MiniMessage mm = MiniMessage.miniMessage();
+    private final BlockingProfiler profiler;
 
     // Per-plugin state (configs + locales)
     private final Map<String, PerPluginState> states = new ConcurrentHashMap<>();
+    // Typed bindings per plugin; kept across re-registration, dropped when the plugin is disabled
+    private final Map<String, Map<BindingKey, BoundConfig<?>>> bindings = new ConcurrentHashMap<>();
 
-    public CloudConfigServiceImpl(JavaPlugin plugin) {
+    private record BindingKey(String fileName, String path, Class<?> type) {}
+
+    // File parsing for registerAsync and watched changes; one virtual thread per file
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final long WATCH_DEBOUNCE_MS = 250;
+    private FileWatcher watcher; // created on first setWatching(.., true)
+
+    private static final long WRITE_BEHIND_MS = 1_000;
+    private final ConfigWriter writer;
+    private final Executor serverThread;
+    private final Set<String> writeBehind = ConcurrentHashMap.newKeySet();
+
+    private final PlayerLocales playerLocales;
+
+    private static final long FLEET_POLL_MS = 2_000;
+    private volatile FleetSync fleet; // set by attachDatabase
+
+    public CloudConfigServiceImpl(JavaPlugin plugin, BlockingProfiler profiler) {
         this.cloudConfigPlugin = plugin;
+        this.profiler = profiler;
+        this.writer = new ConfigWriter(plugin.getSLF4JLogger(), WRITE_BEHIND_MS);
+        this.serverThread = r -> plugin.getServer().getScheduler().runTask(plugin, r);
+        this.playerLocales = new PlayerLocales(plugin.getDataFolder().toPath().resolve("player-locales.yml"), writer);
     }
 
     @Override
     public void register(JavaPlugin plugin, CloudConfigRegistration reg) {
-        String key = plugin.getName();
-        PerPluginState state = states.computeIfAbsent(key, k -> new PerPluginState(plugin));
-        state.defaultLocale = LocaleUtil.parseLocale(reg.defaultLocaleTag());
+        long blocked = profiler.enter();
+        try {
+            states.put(plugin.getName(), load(plugin, reg, Runnable::run));
+            rebind(plugin.getName());
+        } finally {
+            profiler.exit(blocked, plugin, "register");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    @Override
+    public CompletableFuture<Void> registerAsync(JavaPlugin plugin, CloudConfigRegistration reg) {
+        return CompletableFuture.supplyAsync(() -> load(plugin, reg, loader), loader)
+                .thenAccept(st -> {
+                    states.put(plugin.getName(), st);
+                    rebind(plugin.getName());
+                })
+                .whenComplete((v, ex) -> {
+                    if (ex != null) {
+                        cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Async registration of {} failed", plugin.getName(), ex);
+                    }
+                });
+    }
+
+    /** Builds a complete, unpublished state; file reads run on {@code exec}. */
+    private PerPluginState load(JavaPlugin plugin, CloudConfigRegistration reg, Executor exec) {
+        long start = System.nanoTime();
+        PerPluginState state = new PerPluginState(plugin, LocaleUtil.parseLocale(reg.defaultLocaleTag()));
 
         Path data = plugin.getDataFolder().toPath();
         ensureDir(data.resolve("config"));
@@ -52,64 +118,320 @@ public final class CloudConfigServiceImpl implements CloudConfigService {
             }
         }
 
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+
         // Preload configs
+        Map<String, CompletableFuture<FileConfiguration>> configs = new LinkedHashMap<>();
         for (String cfg : reg.configFiles()) {
-            loadConfig(state, cfg);
+            configs.put(cfg, CompletableFuture.supplyAsync(timed("config/" + cfg, timings, () -> readConfig(plugin, cfg)), exec));
         }
+        Map<Locale, LocaleBundle> bundles = readLocales(plugin, exec, timings);
+
+        Map<String, FileConfiguration> loaded = new HashMap<>();
+        configs.forEach((fn, f) -> loaded.put(fn, f.join()));
+        state.publish(loaded, new LocaleIndex(bundles, state.defaultLocale));
+        reportMissing(state, state.snapshot().locales());
 
-        scanLocales(state);
+        logTimings(plugin, start, timings);
+        return state;
     }
 
     @Override
     public FileConfiguration getConfig(JavaPlugin plugin, String fileName) {
         PerPluginState st = requireState(plugin);
-        return st.configs.computeIfAbsent(fileName, fn -> loadConfig(st, fn));
+        FileConfiguration cfg = st.snapshot().configs().get(fileName);
+        if (cfg != null) return cfg;
+        return st.publishConfigIfAbsent(fileName, readConfig(st.plugin, fileName));
     }
 
     @Override
-    public void saveConfig(JavaPlugin plugin, String fileName) {
+    public ConfigView getCompactConfig(JavaPlugin plugin, String fileName) {
+        PerPluginState st = requireState(plugin);
+        ConfigView v = st.compact.get(fileName);
+        if (v != null) return v;
+        // parse outside the map: computeIfAbsent would block other files in the same bin meanwhile
+        v = readCompact(st.plugin, fileName);
+        ConfigView raced = st.compact.putIfAbsent(fileName, v);
+        return raced != null ? raced : v;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Record> ConfigBinding<T> bind(JavaPlugin plugin, String fileName, String path, Class<T> type) {
         PerPluginState st = requireState(plugin);
-        FileConfiguration fc = st.configs.get(fileName);
-        if (fc == null) return;
+        BoundConfig<T> fresh = new BoundConfig<>(fileName, path, type);
+        long version = st.version(fileName);
+        fresh.refresh(getConfig(plugin, fileName), version); // type errors surface to the caller here
+        // binding the same section twice (e.g. on every plugin reload) returns the existing binding
+        BindingKey key = new BindingKey(fileName, fresh.path, type);
+        BoundConfig<T> b = (BoundConfig<T>) bindings.computeIfAbsent(plugin.getName(), k -> new ConcurrentHashMap<>())
+                .putIfAbsent(key, fresh);
+        if (b == null) return fresh;
+        b.refresh(getConfig(plugin, fileName), version);
+        return b;
+    }
+
+    @Override
+    public void saveConfig(JavaPlugin plugin, String fileName) {
+        long blocked = profiler.enter();
         try {
-            fc.save(st.plugin.getDataFolder().toPath().resolve("config").resolve(fileName).toFile());
-        } catch (Exception e) {
-            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed to save {}", fileName, e);
+            PerPluginState st = requireState(plugin);
+            FileConfiguration fc = st.snapshot().configs().get(fileName);
+            if (fc == null) return;
+            Path path = st.plugin.getDataFolder().toPath().resolve("config").resolve(fileName);
+            // saved configs were usually mutated in place; bindings of this file pick that up when it is written
+            st.touch(fileName);
+            if (writeBehind.contains(plugin.getName())) {
+                // only marks the file dirty; serialized once per window on the server thread, where configs are mutated
+                writer.schedule(path, () -> {
+                    rebind(plugin.getName(), fileName);
+                    return latest(st, fileName, fc).saveToString();
+                }, serverThread, mtime -> st.written.put(fileName, mtime));
+            } else {
+                rebind(plugin.getName(), fileName);
+                try {
+                    st.written.put(fileName, ConfigWriter.writeAtomically(path, fc.saveToString()));
+                } catch (Exception e) {
+                    cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed to save {}", fileName, e);
+                }
+            }
+        } finally {
+            profiler.exit(blocked, plugin, "saveConfig");
         }
+        profiler.failIfSlow(blocked);
+    }
+
+    /** The config as published when the deferred save runs; updateConfig may have swapped in a copy since. */
+    private static FileConfiguration latest(PerPluginState st, String fileName, FileConfiguration saved) {
+        FileConfiguration cur = st.snapshot().configs().get(fileName);
+        return cur != null ? cur : saved;
+    }
+
+    @Override
+    public void updateConfig(JavaPlugin plugin, String fileName, Consumer<FileConfiguration> change) {
+        PerPluginState st = requireState(plugin);
+        synchronized (st) { // one update at a time per plugin, so none is lost
+            FileConfiguration cur = getConfig(plugin, fileName);
+            YamlConfiguration copy = new YamlConfiguration();
+            try {
+                copy.loadFromString(cur.saveToString());
+            } catch (InvalidConfigurationException e) {
+                throw new IllegalStateException("Cannot copy config/" + fileName, e);
+            }
+            if (cur.getDefaults() != null) {
+                copy.setDefaults(cur.getDefaults());
+                copy.options().copyDefaults(cur.options().copyDefaults());
+            }
+            change.accept(copy);
+            st.publishConfig(fileName, copy);
+        }
+        saveConfig(plugin, fileName); // rebinds this file's bindings as well
+    }
+
+    @Override
+    public void setWriteBehind(JavaPlugin plugin, boolean enabled) {
+        requireState(plugin);
+        if (enabled) {
+            writeBehind.add(plugin.getName());
+        } else if (writeBehind.remove(plugin.getName())) {
+            writer.flush(plugin.getDataFolder().toPath());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> flush() {
+        return writer.flush();
     }
 
     @Override
     public void reload(JavaPlugin plugin) {
+        long blocked = profiler.enter();
+        try {
+            PerPluginState st = requireState(plugin);
+            Map<String, FileConfiguration> configs = new HashMap<>();
+            for (String fn : st.snapshot().configs().keySet()) {
+                configs.put(fn, readConfig(st.plugin, fn));
+            }
+            for (String fn : st.compact.keySet()) {
+                st.compact.put(fn, readCompact(st.plugin, fn));
+            }
+            LocaleIndex index = new LocaleIndex(readLocales(st.plugin, Runnable::run, null), st.defaultLocale);
+            st.publish(configs, index);
+            reportMissing(st, index);
+            rebind(plugin.getName());
+        } finally {
+            profiler.exit(blocked, plugin, "reload");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    @Override
+    public void setWatching(JavaPlugin plugin, boolean enabled) {
+        PerPluginState st = requireState(plugin);
+        try {
+            if (enabled) {
+                Path data = st.plugin.getDataFolder().toPath();
+                watcher().watch(plugin.getName(), data.resolve("config"), data.resolve("locale"));
+            } else {
+                synchronized (this) {
+                    if (watcher != null) watcher.unwatch(plugin.getName());
+                }
+            }
+        } catch (IOException e) {
+            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed to watch files of {}", plugin.getName(), e);
+        }
+    }
+
+    /** Enables fleet distribution; called once the database service exists. */
+    public void attachDatabase(CloudDatabaseService db) {
+        String node = Objects.requireNonNullElse(System.getenv("HOSTNAME"), "server") + ":" + cloudConfigPlugin.getServer().getPort();
+        this.fleet = new FleetSync(cloudConfigPlugin.getSLF4JLogger(), db, loader, System.getProperty("cloudconfig.node", node),
+                this::applyFleetChanges);
+    }
+
+    @Override
+    public void setFleetSync(JavaPlugin plugin, boolean enabled) {
+        PerPluginState st = requireState(plugin);
+        if (!enabled) {
+            if (fleet != null) fleet.stop(plugin.getName());
+            return;
+        }
+        FileConfiguration dbCfg = st.snapshot().configs().get("database.yml");
+        long interval = dbCfg == null ? FLEET_POLL_MS : dbCfg.getLong("fleet.pollIntervalMs", FLEET_POLL_MS);
+        requireFleet().start(st.plugin, interval);
+    }
+
+    @Override
+    public CompletableFuture<Integer> publishToFleet(JavaPlugin plugin) {
         PerPluginState st = requireState(plugin);
-        new ArrayList<>(st.configs.keySet()).forEach(fn -> loadConfig(st, fn));
-        scanLocales(st);
+        FleetSync f = requireFleet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                int n = f.publish(st.plugin);
+                cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Published {} changed file(s) of {} to the fleet", n, plugin.getName());
+                return n;
+            } catch (SQLException | IOException e) {
+                throw new CompletionException(e);
+            }
+        }, loader);
+    }
+
+    @Override
+    public long fleetVersion(JavaPlugin plugin) {
+        return fleet == null ? 0 : fleet.version(plugin.getName());
+    }
+
+    private FleetSync requireFleet() {
+        FleetSync f = fleet;
+        if (f == null) throw new IllegalStateException("Fleet sync needs the CloudConfig database service");
+        return f;
+    }
+
+    /** Files written by the fleet poller: swapped in like watched edits, then marked as ours so the watcher skips them. */
+    private void applyFleetChanges(String pluginName, Set<Path> changed) {
+        applyChanges(pluginName, changed);
+        PerPluginState st = states.get(pluginName);
+        if (st == null) return;
+        Path configDir = st.plugin.getDataFolder().toPath().resolve("config");
+        for (Path p : changed) {
+            if (!p.getParent().equals(configDir)) continue;
+            try {
+                st.written.put(p.getFileName().toString(), Files.getLastModifiedTime(p));
+            } catch (IOException ignored) {
+                // deleted
+            }
+        }
     }
 
     @Override
     public Set<Locale> getAvailableLocales(JavaPlugin plugin) {
-        return Collections.unmodifiableSet(requireState(plugin).availableLocales);
+        return requireState(plugin).snapshot().locales().available();
     }
 
     @Override
     public Component message(JavaPlugin plugin, String key, Locale requested, Map<String, Object> placeholders) {
+        return messageWith(plugin, key, requested, placeholders == null ? Placeholders.NONE : Placeholders.of(placeholders));
+    }
+
+    @Override
+    public Component messageWith(JavaPlugin plugin, String key, Locale requested, Placeholders placeholders) {
+        PerPluginState st = requireState(plugin);
+        return st.snapshot().locales().view(requested).template(key, mm).render(placeholders, mm);
+    }
+
+    @Override
+    public void send(Audience audience, JavaPlugin plugin, String key, Map<String, Object> placeholders) {
+        sendWith(audience, plugin, key, placeholders == null ? Placeholders.NONE : Placeholders.of(placeholders));
+    }
+
+    @Override
+    public void sendWith(Audience audience, JavaPlugin plugin, String key, Placeholders placeholders) {
+        audience.sendMessage(messageWith(plugin, key, localeOf(audience, requireState(plugin)), placeholders));
+    }
+
+    @Override
+    public void sendAll(Collection<? extends Audience> audiences, JavaPlugin plugin, String key, Placeholders placeholders) {
         PerPluginState st = requireState(plugin);
-        String raw = resolveMessage(st, key, requested);
-        if (raw == null) raw = "<gray>Missing message: <red>" + key + "</red></gray>";
-        if (placeholders != null) {
-            for (var e : placeholders.entrySet()) {
-                raw = raw.replace("{" + e.getKey() + "}", String.valueOf(e.getValue()));
+        LocaleIndex index = st.snapshot().locales();
+        Map<LocaleView, Component> rendered = new IdentityHashMap<>();
+        for (Audience a : audiences) {
+            LocaleView view = index.view(localeOf(a, st));
+            Component c = rendered.get(view);
+            if (c == null) {
+                c = view.template(key, mm).render(placeholders, mm);
+                rendered.put(view, c);
             }
+            a.sendMessage(c);
         }
-        return mm.deserialize(raw);
     }
 
     @Override
-    public void send(Audience audience, JavaPlugin plugin, String key, Map<String, Object> placeholders) {
-        Locale loc = requireState(plugin).defaultLocale;
-        if (audience instanceof Player p && p.locale() != null) {
-            loc = p.locale();
+    public void sendAllPerViewer(Collection<? extends Audience> audiences, JavaPlugin plugin, String key,
+                                 Function<? super Audience, Placeholders> placeholders) {
+        PerPluginState st = requireState(plugin);
+        LocaleIndex index = st.snapshot().locales();
+        // each locale's message is parsed once; per viewer only its slots are resolved
+        for (Audience a : audiences) {
+            MessageTemplate t = index.view(localeOf(a, st)).template(key, mm);
+            a.sendMessage(t.isStatic() ? t.render(null, mm) : t.renderSlots(placeholders.apply(a), mm));
         }
-        audience.sendMessage(message(plugin, key, loc, placeholders));
+    }
+
+    @Override
+    public Locale localeOf(Player player) {
+        Locale cached = playerLocales.get(player.getUniqueId());
+        if (cached != null) return cached;
+        Locale o = playerLocales.override(player.getUniqueId());
+        return o != null ? o : player.locale();
+    }
+
+    @Override
+    public void setLocaleOverride(UUID player, Locale locale) {
+        playerLocales.setOverride(player, locale, cloudConfigPlugin.getServer().getPlayer(player));
+    }
+
+    private Locale localeOf(Audience audience, PerPluginState st) {
+        if (audience instanceof Player p) {
+            Locale l = localeOf(p);
+            if (l != null) return l;
+        }
+        return st.defaultLocale;
+    }
+
+    /** Starts tracking player locales via join/locale-change/quit events; call once from onEnable. */
+    public void trackPlayerLocales() {
+        cloudConfigPlugin.getServer().getPluginManager().registerEvents(playerLocales, cloudConfigPlugin);
+        for (Player p : cloudConfigPlugin.getServer().getOnlinePlayers()) playerLocales.track(p);
+    }
+
+    /** Drops a plugin's bindings when it is disabled, so their records and classes can be collected. */
+    public void trackPluginDisable() {
+        cloudConfigPlugin.getServer().getPluginManager().registerEvents(new Listener() {
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onDisable(PluginDisableEvent e) {
+                bindings.remove(e.getPlugin().getName());
+            }
+        }, cloudConfigPlugin);
     }
 
     private PerPluginState requireState(JavaPlugin plugin) {
@@ -118,13 +440,93 @@ public final class CloudConfigServiceImpl implements CloudConfigService {
         return st;
     }
 
-    private FileConfiguration loadConfig(PerPluginState st, String fileName) {
+    private synchronized FileWatcher watcher() throws IOException {
+        if (watcher == null) {
+            watcher = new FileWatcher(cloudConfigPlugin.getSLF4JLogger(), WATCH_DEBOUNCE_MS, loader, this::applyChanges);
+        }
+        return watcher;
+    }
+
+    /** Re-reads only the changed files and swaps them in; runs on the loader executor. */
+    private void applyChanges(String pluginName, Set<Path> changed) {
+        PerPluginState st = states.get(pluginName);
+        if (st == null) return;
+        Path data = st.plugin.getDataFolder().toPath();
+        Path configDir = data.resolve("config");
+        Path localeDir = data.resolve("locale");
+
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        for (Path p : changed) {
+            String name = p.getFileName().toString();
+            if (p.getParent().equals(configDir)) {
+                // only files the plugin actually uses, and not the ones we just saved ourselves
+                boolean loaded = st.snapshot().configs().containsKey(name);
+                boolean compact = st.compact.containsKey(name);
+                if (!(loaded || compact) || isOwnWrite(st, name, p)) continue;
+                if (loaded) st.publishConfig(name, readConfig(st.plugin, name));
+                if (compact) st.compact.put(name, readCompact(st.plugin, name));
+                cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Reloaded {} config/{}", pluginName, name);
+                if (loaded) rebind(pluginName, name);
+            } else if (p.getParent().equals(localeDir)) {
+                Locale loc = LocaleUtil.parseLocale(name.replace(".yml", ""));
+                if (Files.notExists(p)) {
+                    bundles.put(loc, null);
+                    continue;
+                }
+                try {
+                    bundles.put(loc, BundleCache.load(p, BundleCache.dir(data)));
+                    cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Reloaded {} locale/{}", pluginName, name);
+                } catch (IOException | YAMLException ex) {
+                    cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] Bad locale file {}: {}", p, ex.toString());
+                }
+            }
+        }
+        if (!bundles.isEmpty()) reportMissing(st, st.publishLocaleChanges(bundles).locales());
+    }
+
+    private void rebind(String pluginName) {
+        rebind(pluginName, null);
+    }
+
+    /**
+     * Rebuilds bindings of {@code fileName} (all files if null) whose config changed since they were built;
+     * a failing rebuild keeps the old value.
+     */
+    private void rebind(String pluginName, String fileName) {
+        PerPluginState st = states.get(pluginName);
+        Map<BindingKey, BoundConfig<?>> bound = bindings.get(pluginName);
+        if (st == null || bound == null) return;
+        for (BoundConfig<?> b : bound.values()) {
+            if (fileName != null && !fileName.equals(b.fileName)) continue;
+            long version = st.version(b.fileName); // before the snapshot, see PerPluginState#version
+            FileConfiguration cfg = st.snapshot().configs().get(b.fileName);
+            if (cfg == null) cfg = getConfig(st.plugin, b.fileName);
+            try {
+                b.refresh(cfg, version);
+            } catch (IllegalArgumentException e) {
+                cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] {} config/{} no longer binds, keeping previous values: {}",
+                        pluginName, b.fileName, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isOwnWrite(PerPluginState st, String fileName, Path path) {
+        FileTime written = st.written.get(fileName);
+        if (written == null) return false;
         try {
-            Path path = st.plugin.getDataFolder().toPath().resolve("config").resolve(fileName);
+            return written.equals(Files.getLastModifiedTime(path));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private FileConfiguration readConfig(JavaPlugin plugin, String fileName) {
+        try {
+            Path path = plugin.getDataFolder().toPath().resolve("config").resolve(fileName);
             ensureDir(path.getParent());
             FileConfiguration cfg = YamlConfiguration.loadConfiguration(path.toFile());
 
-            try (var in = st.plugin.getResource("config/" + fileName)) {
+            try (var in = plugin.getResource("config/" + fileName)) {
                 if (in != null) {
                     YamlConfiguration def = YamlConfiguration.loadConfiguration(
                             new InputStreamReader(in, StandardCharsets.UTF_8));
@@ -132,7 +534,6 @@ public final class CloudConfigServiceImpl implements CloudConfigService {
                     cfg.options().copyDefaults(true);
                 }
             }
-            st.configs.put(fileName, cfg);
             return cfg;
         } catch (Exception e) {
             cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed loading config {}", fileName, e);
@@ -140,41 +541,102 @@ public final class CloudConfigServiceImpl implements CloudConfigService {
         }
     }
 
-    private void scanLocales(PerPluginState st) {
-        st.bundles.clear();
-        st.availableLocales.clear();
-        Path dir = st.plugin.getDataFolder().toPath().resolve("locale");
+    /** Same file and bundled defaults as readConfig, as a compact read-only view. */
+    private ConfigView readCompact(JavaPlugin plugin, String fileName) {
+        Path path = plugin.getDataFolder().toPath().resolve("config").resolve(fileName);
+        try {
+            CompactConfig cfg = Files.exists(path)
+                    ? CompactConfig.load(() -> Files.newBufferedReader(path, StandardCharsets.UTF_8))
+                    : CompactConfig.EMPTY;
+            CompactConfig defaults;
+            try {
+                // one source for both passes, opening the bundled resource each time
+                defaults = CompactConfig.load(() -> {
+                    var in = plugin.getResource("config/" + fileName);
+                    if (in == null) throw new NoSuchFileException("config/" + fileName);
+                    return new InputStreamReader(in, StandardCharsets.UTF_8);
+                });
+            } catch (NoSuchFileException e) {
+                defaults = null; // no bundled defaults
+            }
+            return cfg.view(defaults);
+        } catch (Exception e) {
+            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed loading config {}", fileName, e);
+            return CompactConfig.EMPTY.view(null);
+        }
+    }
+
+    /** Parses every locale file, each one as its own task on {@code exec}. */
+    private Map<Locale, LocaleBundle> readLocales(JavaPlugin plugin, Executor exec, Map<String, Long> timings) {
+        Path dir = plugin.getDataFolder().toPath().resolve("locale");
         ensureDir(dir);
+        List<Path> files;
         try (var stream = Files.list(dir)) {
-            stream.filter(p -> p.getFileName().toString().endsWith(".yml")).forEach(p -> {
-                String base = p.getFileName().toString().replace(".yml","");
-                Locale loc = LocaleUtil.parseLocale(base);
+            files = stream.filter(p -> p.getFileName().toString().endsWith(".yml")).toList();
+        } catch (IOException e) {
+            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed scanning locales for {}", plugin.getName(), e);
+            return Map.of();
+        }
+        Path cacheDir = BundleCache.dir(plugin.getDataFolder().toPath());
+        BundleCache.prune(cacheDir, files.stream().map(p -> p.getFileName().toString()).collect(Collectors.toSet()));
+
+        Map<Locale, CompletableFuture<LocaleBundle>> pending = new HashMap<>();
+        for (Path p : files) {
+            String base = p.getFileName().toString().replace(".yml","");
+            pending.put(LocaleUtil.parseLocale(base), CompletableFuture.supplyAsync(timed("locale/" + p.getFileName(), timings, () -> {
                 try {
-                    LocaleBundle b = LocaleBundle.load(p);
-                    st.bundles.put(loc, b);
-                    st.availableLocales.add(loc);
-                } catch (IOException ex) {
+                    return BundleCache.load(p, cacheDir);
+                } catch (IOException | YAMLException ex) {
                     cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] Bad locale file {}: {}", p, ex.toString());
+                    return null;
                 }
-            });
-        } catch (IOException e) {
-            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed scanning locales for {}", st.plugin.getName(), e);
+            }), exec));
         }
 
-        if (!st.availableLocales.contains(st.defaultLocale)) {
-            st.availableLocales.add(st.defaultLocale);
-        }
+        Map<Locale, LocaleBundle> bundles = new HashMap<>();
+        pending.forEach((loc, f) -> {
+            LocaleBundle b = f.join();
+            if (b != null) bundles.put(loc, b);
+        });
+        return bundles;
     }
 
-    private String resolveMessage(PerPluginState st, String key, Locale requested) {
-        for (Locale c : LocaleUtil.fallbackChain(requested, st.defaultLocale)) {
-            LocaleBundle b = st.bundles.get(c);
-            if (b != null) {
-                String v = b.get(key);
-                if (v != null) return v;
+    private static <T> Supplier<T> timed(String file, Map<String, Long> timings, Supplier<T> task) {
+        if (timings == null) return task;
+        return () -> {
+            long t = System.nanoTime();
+            try {
+                return task.get();
+            } finally {
+                timings.put(file, System.nanoTime() - t);
             }
-        }
-        return null;
+        };
+    }
+
+    private void logTimings(JavaPlugin plugin, long start, Map<String, Long> timings) {
+        long total = System.nanoTime() - start;
+        long parse = 0;
+        for (long n : timings.values()) parse += n;
+        var slowest = timings.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(3)
+                .map(e -> e.getKey() + "=" + ms(e.getValue()) + "ms")
+                .toList();
+        cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Loaded {} in {} ms ({} files, {} ms parse time, slowest {})",
+                plugin.getName(), ms(total), timings.size(), ms(parse), slowest);
+    }
+
+    private static long ms(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private void reportMissing(PerPluginState st, LocaleIndex index) {
+        index.missingKeys().forEach((loc, keys) -> {
+            List<String> sample = keys.stream().limit(10).toList();
+            cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] {} locale {} lacks {} key(s) of {}, using fallback: {}{}",
+                    st.plugin.getName(), loc.toLanguageTag(), keys.size(), index.defaultLocale().toLanguageTag(),
+                    sample, keys.size() > sample.size() ? " ..." : "");
+        });
     }
 
     private static void ensureDir(Path p) {
@@ -189,7 +651,17 @@ public final class CloudConfigServiceImpl implements CloudConfigService {
         }
     }
 
+    /** Stops all fleet polling; must run before the database pools close. */
+    public void stopFleet() {
+        if (fleet != null) fleet.close();
+    }
+
     public void shutdown() {
-        // TODO: Implement CCSImpl shutdown mechanic
+        stopFleet();
+        writer.close(); // waits for pending write-behind saves
+        synchronized (this) {
+            if (watcher != null) watcher.close();
+        }
+        loader.shutdownNow();
     }
 }
@@ -3,42 +3,123 @@ package de.aboutcloud.cloudConfig.core;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import de.aboutcloud.cloudConfig.api.config.CloudConfigService;
+import de.aboutcloud.cloudConfig.api.databasse.CacheSpec;
 import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import de.aboutcloud.cloudConfig.api.databasse.DbCache;
+import de.aboutcloud.cloudConfig.api.databasse.PoolStats;
+import de.aboutcloud.cloudConfig.api.databasse.QueryStats;
+import de.aboutcloud.cloudConfig.api.databasse.RowMapper;
+import de.aboutcloud.cloudConfig.api.databasse.UncheckedSQLException;
+import de.aboutcloud.cloudConfig.api.databasse.WriteQueue;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import javax.sql.DataSource;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.sql.*;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
 
 public final class CloudDatabaseServiceImpl implements CloudDatabaseService {
     private final JavaPlugin cloudConfigPlugin;
     private final CloudConfigService cfgService;
+    private final BlockingProfiler profiler;
 
     private static final String CFG_FILE = "database.yml";
     private static final String MIGRATIONS_DIR = "config/db/migrations";
+    private static final String QUERIES_DIR = "config/db/queries";
+    private static final Pattern SQL_VAR = Pattern.compile("\\$\\{([\\w.\\-]+)}");
     private static final Pattern MIGRATION_NAME = Pattern.compile("^V(\\d+)__([\\w\\-]+)\\.sql$");
 
-    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+    private final Map<String, PerPluginDatabase> pools = new ConcurrentHashMap<>();
+    // pool.shared: true -> one Hikari pool per server + credentials, guarded by itself
+    private final Map<SharedPool.Key, SharedPool> sharedPools = new HashMap<>();
+    private final ExecutorService async = Executors.newVirtualThreadPerTaskExecutor();
+    // plugin -> readiness of its last ensurePoolAsync; absent for pools created synchronously
+    private final Map<String, CompletableFuture<Void>> readiness = new ConcurrentHashMap<>();
+    // set on the bootstrap thread so its own migrations don't wait on the readiness future
+    private static final ThreadLocal<String> BOOTSTRAPPING = new ThreadLocal<>();
     private final Map<String, Map<String,String>> sqlVars = new ConcurrentHashMap<>();
+    // plugin -> queue name -> queue; kept across pool reloads
+    private final Map<String, Map<String, BatchWriteQueue>> writeQueues = new ConcurrentHashMap<>();
+    // plugin -> cache name -> cache; kept across pool reloads
+    private final Map<String, Map<String, TinyLfuCache<?, ?>>> caches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "CloudDB-Timer");
+        t.setDaemon(true);
+        return t;
+    });
 
-    public CloudDatabaseServiceImpl(JavaPlugin cloudConfig, CloudConfigService cfgService) {
+    public CloudDatabaseServiceImpl(JavaPlugin cloudConfig, CloudConfigService cfgService, BlockingProfiler profiler) {
         this.cloudConfigPlugin = cloudConfig;
         this.cfgService = cfgService;
+        this.profiler = profiler;
     }
 
     @Override
     public void ensurePool(JavaPlugin plugin) throws SQLException {
+        long blocked = profiler.enter();
+        try {
+            readiness.remove(plugin.getName());
+            bootstrap(plugin);
+        } finally {
+            profiler.exit(blocked, plugin, "ensurePool");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    @Override
+    public CompletableFuture<Void> ensurePoolAsync(JavaPlugin plugin) {
         String key = plugin.getName();
-        close(plugin); // recreate if existed
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        CompletableFuture<Void> prev = readiness.put(key, ready);
+        async.execute(() -> {
+            if (prev != null) prev.exceptionally(ex -> null).join(); // one bootstrap per plugin at a time
+            long start = System.nanoTime();
+            BOOTSTRAPPING.set(key);
+            try {
+                bootstrap(plugin);
+                cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Database of {} ready in {} ms", key,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                ready.complete(null);
+            } catch (Throwable t) {
+                cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Database bootstrap of {} failed", key, t);
+                ready.completeExceptionally(t);
+            } finally {
+                BOOTSTRAPPING.remove();
+            }
+        });
+        return ready;
+    }
+
+    @Override
+    public CompletableFuture<Void> ready(JavaPlugin plugin) {
+        CompletableFuture<Void> f = readiness.get(plugin.getName());
+        if (f != null) return f;
+        return pools.containsKey(plugin.getName())
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new IllegalStateException("No DataSource for " + plugin.getName() + " (call ensurePool)"));
+    }
+
+    /** Creates the pool, loads named queries and runs migrations; blocks on the database. */
+    private void bootstrap(JavaPlugin plugin) throws SQLException {
+        String key = plugin.getName();
+        closePool(key); // recreate if existed
 
         FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
         if (cfg == null) throw new IllegalStateException("Missing " + CFG_FILE + " for " + key);
@@ -58,47 +139,63 @@ public final class CloudDatabaseServiceImpl implements CloudDatabaseService {
             createDatabaseIfMissing(host, port, user, password, ssl, database);
         }
 
-        String jdbc = "jdbc:mariadb://" + host + ":" + port + "/" + database + "?useUnicode=true&characterEncoding=utf8"
-                + (ssl ? "&useSsl=true" : "&useSsl=false");
-
-        try {
-            Class.forName("org.mariadb.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-        HikariConfig hc = new HikariConfig();
-        hc.setJdbcUrl(jdbc);
-        hc.setUsername(user);
-        hc.setPassword(password);
-        hc.setDriverClassName("org.mariadb.jdbc.Driver");
-        hc.setPoolName("CloudDB-" + key);
-        hc.setMaximumPoolSize(cfg.getInt("pool.maxPoolSize", 10));
-        hc.setMinimumIdle(cfg.getInt("pool.minIdle", 2));
-        hc.setConnectionTimeout(cfg.getLong("pool.connectionTimeoutMs", 10_000));
-        hc.setIdleTimeout(cfg.getLong("pool.idleTimeoutMs", 600_000));
-        hc.setMaxLifetime(cfg.getLong("pool.maxLifetimeMs", 1_800_000));
-        if (cfg.getBoolean("pool.allowMysqlCompat", false)) {
-            hc.addDataSourceProperty("useMysqlMetadata", "true");
+        int maxPoolSize = cfg.getInt("pool.maxPoolSize", 10);
+        PoolMetrics metrics = new PoolMetrics(cfg.getLong("metrics.slowTransactionMs", 1_000));
+        if (cfg.getBoolean("pool.shared", false)) {
+            // one pool per server + credentials; maxPoolSize is this plugin's ceiling within it
+            SharedPool.Key pk = new SharedPool.Key(host, port, user, password, ssl);
+            int guaranteed = cfg.getInt("pool.guaranteed", cfg.getInt("pool.minIdle", 2));
+            HikariConfig wanted = hikariConfig(cfg, jdbcUrl(host, port, "", ssl), user, password,
+                    "CloudDB-shared-" + host + ":" + port, maxPoolSize, null);
+            PerPluginDatabase db;
+            synchronized (sharedPools) {
+                SharedPool sp = sharedPools.get(pk);
+                if (sp == null) {
+                    sp = new SharedPool(pk, new HikariDataSource(wanted), key, timer);
+                    sharedPools.put(pk, sp);
+                } else {
+                    List<String> ignored = poolSettingConflicts(wanted, sp.hikari);
+                    if (!ignored.isEmpty()) {
+                        cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] {} joins shared pool {} created by {}; its differing pool settings are ignored: {}",
+                                key, pk, sp.createdBy, ignored);
+                    }
+                }
+                SharedPool.Tenant t = sp.join(key, database, guaranteed, maxPoolSize,
+                        cfg.getLong("pool.connectionTimeoutMs", 10_000), metrics);
+                db = new PerPluginDatabase(key, database, t, sp.hikari, metrics, breaker(key, cfg, t, metrics));
+            }
+            pools.put(key, db);
+            cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] {} uses shared pool {} (guaranteed {}, max {})",
+                    key, pk, db.tenant.guaranteed, maxPoolSize);
+        } else {
+            HikariDataSource ds = new HikariDataSource(hikariConfig(cfg, jdbcUrl(host, port, database, ssl), user, password,
+                    "CloudDB-" + key, maxPoolSize, metrics));
+            pools.put(key, new PerPluginDatabase(key, database, ds, metrics, breaker(key, cfg, ds, metrics), maxPoolSize));
         }
-
-        HikariDataSource ds = new HikariDataSource(hc);
-        pools.put(key, ds);
+        if (cfg.getBoolean("metrics.jmx", true)) registerMBean(pools.get(key));
+        pools.get(key).replicas = createReplicas(key, cfg, database, user, password, ssl);
 
         // Default SQL variables
         Map<String,String> vars = new HashMap<>();
         vars.put("plugin", toSnake(key));       // ${plugin}
         vars.put("database", database);         // ${database}
-        setSqlVariables(plugin, vars);
+        setSqlVariables(plugin, vars); // also loads named queries
 
         // Migrations on startup?
         if (cfg.getBoolean("migrations.runOnStartup", true)) {
             migrate(plugin);
         }
+        if (cfg.getBoolean("fleet.enabled", false)) {
+            cfgService.setFleetSync(plugin, true); // starts polling once this bootstrap has completed
+        }
     }
 
     @Override public void close(JavaPlugin plugin) {
-        HikariDataSource ds = pools.remove(plugin.getName());
-        if (ds != null) ds.close();
+        readiness.remove(plugin.getName());
+        writeQueues.getOrDefault(plugin.getName(), Map.of()).values().forEach(BatchWriteQueue::close);
+        closePool(plugin.getName());
+        writeQueues.remove(plugin.getName());
+        caches.remove(plugin.getName());
     }
 
     @Override public void reload(JavaPlugin plugin) throws SQLException {
@@ -106,144 +203,844 @@ public final class CloudDatabaseServiceImpl implements CloudDatabaseService {
     }
 
     @Override public DataSource dataSource(JavaPlugin plugin) {
-        HikariDataSource ds = pools.get(plugin.getName());
-        if (ds == null) throw new IllegalStateException("No DataSource for " + plugin.getName() + " (call ensurePool)");
-        return ds;
+        return requireDb(plugin).dataSource;
     }
 
     @Override public Connection connection(JavaPlugin plugin) throws SQLException {
-        return dataSource(plugin).getConnection();
+        long blocked = profiler.enter();
+        Connection c;
+        try {
+            c = acquire(requireDb(plugin));
+        } finally {
+            profiler.exit(blocked, plugin, "connection");
+        }
+        profiler.failIfSlow(blocked, c); // returns it to the pool first
+        return c;
     }
 
     @Override public <T> T withConnection(JavaPlugin plugin, SQLFunction<Connection,T> fn) throws SQLException {
-        try (Connection c = connection(plugin)) { return fn.apply(c); }
+        long blocked = profiler.enter();
+        T result;
+        try {
+            PerPluginDatabase db = requireDb(plugin);
+            Connection c = acquire(db);
+            try (c) {
+                result = fn.apply(c);
+                db.breaker.success();
+            } catch (SQLException e) {
+                db.breaker.failure(e);
+                throw e;
+            }
+        } finally {
+            profiler.exit(blocked, plugin, "withConnection");
+        }
+        profiler.failIfSlow(blocked);
+        return result;
     }
 
     @Override public void withTransaction(JavaPlugin plugin, SQLConsumer<Connection> tx) throws SQLException {
-        try (Connection c = connection(plugin)) {
-            boolean old = c.getAutoCommit();
-            c.setAutoCommit(false);
+        long blocked = profiler.enter();
+        try {
+            PerPluginDatabase db = requireDb(plugin);
+            retrying(plugin, db, () -> new Lease(acquire(db), true), tx);
+        } finally {
+            profiler.exit(blocked, plugin, "withTransaction");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    @Override public <T> T withReadConnection(JavaPlugin plugin, SQLFunction<Connection, T> fn) throws SQLException {
+        long blocked = profiler.enter();
+        T result;
+        try {
+            PerPluginDatabase db = requireDb(plugin);
+            Lease lease = readConnection(db);
+            try (Connection c = lease.connection) {
+                result = fn.apply(c);
+                if (lease.primary) db.breaker.success();
+            } catch (SQLException e) {
+                if (lease.primary) db.breaker.failure(e);
+                throw e;
+            }
+        } finally {
+            profiler.exit(blocked, plugin, "withReadConnection");
+        }
+        profiler.failIfSlow(blocked);
+        return result;
+    }
+
+    @Override public void withReadTransaction(JavaPlugin plugin, SQLConsumer<Connection> tx) throws SQLException {
+        long blocked = profiler.enter();
+        try {
+            PerPluginDatabase db = requireDb(plugin);
+            retrying(plugin, db, () -> readConnection(db), tx);
+        } finally {
+            profiler.exit(blocked, plugin, "withReadTransaction");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    /** A primary connection, unless the circuit is open; acquire failures count towards opening it. */
+    private static Connection acquire(PerPluginDatabase db) throws SQLException {
+        db.breaker.check();
+        try {
+            return db.dataSource.getConnection();
+        } catch (SQLException e) {
+            db.breaker.failure(e);
+            throw e;
+        }
+    }
+
+    /** A pooled connection; outcomes on primary ones count towards the primary's circuit breaker. */
+    private record Lease(Connection connection, boolean primary) {}
+
+    /** A replica connection, or one from the primary if there are no replicas or none is healthy. */
+    private static Lease readConnection(PerPluginDatabase db) throws SQLException {
+        ReplicaSet rs = db.replicas;
+        if (rs == null) return new Lease(acquire(db), true);
+        Connection c = rs.connection();
+        if (c != null) return new Lease(c, false);
+        if (rs.fallbackToPrimary) return new Lease(acquire(db), true);
+        throw new SQLTransientConnectionException("No healthy read replica for " + db.plugin);
+    }
+
+    /**
+     * Runs {@code tx}, running it again on a fresh connection after deadlocks, lock wait timeouts
+     * and lost connections (retry.maxAttempts, jittered backoff). A failed commit is never retried
+     * since it may have been applied.
+     */
+    private void retrying(JavaPlugin plugin, PerPluginDatabase db, SQLSupplier<Lease> source,
+                          SQLConsumer<Connection> tx) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            Lease lease = source.get();
+            boolean primary = lease.primary;
+            try (Connection c = lease.connection) {
+                transaction(db, c, tx);
+                if (primary) db.breaker.success();
+                return;
+            } catch (CommitFailedException e) {
+                if (primary) db.breaker.failure(e.getCause());
+                throw e.getCause();
+            } catch (SQLException e) {
+                if (primary) db.breaker.failure(e);
+                FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
+                int maxAttempts = cfg == null ? 3 : cfg.getInt("retry.maxAttempts", 3);
+                if (attempt >= maxAttempts || !CircuitBreaker.isRetryable(e)) throw e;
+                db.metrics.retries.increment();
+                long base = cfg == null ? 50 : cfg.getLong("retry.backoffMs", 50);
+                long max = cfg == null ? 1_000 : cfg.getLong("retry.maxBackoffMs", 1_000);
+                long cap = Math.min(max, base << Math.min(attempt - 1, 16));
+                long sleep = cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1); // "equal jitter"
+                cloudConfigPlugin.getSLF4JLogger().debug("[CloudConfig] Retrying transaction of {} in {} ms (attempt {}/{}): {}",
+                        db.plugin, sleep, attempt + 1, maxAttempts, e.getMessage());
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /** withTransaction without retries, for work that must not run twice (migrations). */
+    private void transactionOnce(JavaPlugin plugin, SQLConsumer<Connection> tx) throws SQLException {
+        PerPluginDatabase db = requireDb(plugin);
+        try (Connection c = acquire(db)) {
+            transaction(db, c, tx);
+        } catch (CommitFailedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void transaction(PerPluginDatabase db, Connection c, SQLConsumer<Connection> tx) throws SQLException {
+        boolean old = c.getAutoCommit();
+        c.setAutoCommit(false);
+        long start = System.nanoTime();
+        boolean rolledBack = false;
+        try {
             try {
                 tx.accept(c);
+            } catch (SQLException | RuntimeException e) {
+                rolledBack = true;
+                try {
+                    c.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re); // keep the original error, it decides whether to retry
+                }
+                throw e;
+            }
+            try {
                 c.commit();
             } catch (SQLException e) {
-                c.rollback();
-                throw e;
-            } finally {
+                throw new CommitFailedException(e);
+            }
+        } finally {
+            try {
                 c.setAutoCommit(old);
+            } catch (SQLException ignored) {
+                // broken connection; Hikari resets auto-commit when it takes the connection back anyway
             }
+            recordTransaction(db, System.nanoTime() - start, rolledBack);
         }
     }
 
+    @Override public <T> CompletableFuture<T> withConnectionAsync(JavaPlugin plugin, SQLFunction<Connection, T> fn) {
+        return withConnectionAsync(plugin, fn, false);
+    }
+
+    @Override public <T> CompletableFuture<T> withConnectionAsync(JavaPlugin plugin, SQLFunction<Connection, T> fn, boolean completeOnMainThread) {
+        return submit(plugin, () -> withConnection(plugin, fn), completeOnMainThread);
+    }
+
+    @Override public CompletableFuture<Void> withTransactionAsync(JavaPlugin plugin, SQLConsumer<Connection> tx) {
+        return withTransactionAsync(plugin, tx, false);
+    }
+
+    @Override public CompletableFuture<Void> withTransactionAsync(JavaPlugin plugin, SQLConsumer<Connection> tx, boolean completeOnMainThread) {
+        return submit(plugin, () -> {
+            withTransaction(plugin, tx);
+            return null;
+        }, completeOnMainThread);
+    }
+
+    @Override public WriteQueue writeQueue(JavaPlugin plugin, String name) {
+        return writeQueues.computeIfAbsent(plugin.getName(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> {
+                    FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
+                    int batch = cfg.getInt("writeQueues." + n + ".maxBatchSize", cfg.getInt("writeQueues.default.maxBatchSize", 500));
+                    long age = cfg.getLong("writeQueues." + n + ".maxAgeMs", cfg.getLong("writeQueues.default.maxAgeMs", 1_000));
+                    int maxPending = cfg.getInt("writeQueues." + n + ".maxPending", cfg.getInt("writeQueues.default.maxPending", 100_000));
+                    return new BatchWriteQueue(plugin, n, this, async, timer, cloudConfigPlugin.getSLF4JLogger(), batch, age, maxPending);
+                });
+    }
+
+    @Override public Map<String, WriteQueue.Stats> writeQueueStats(JavaPlugin plugin) {
+        Map<String, WriteQueue.Stats> out = new TreeMap<>();
+        writeQueues.getOrDefault(plugin.getName(), Map.of()).forEach((n, q) -> out.put(n, q.stats()));
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override public <K, V> DbCache<K, V> cache(JavaPlugin plugin, String name, CacheSpec<K, V> spec) {
+        return (DbCache<K, V>) caches.computeIfAbsent(plugin.getName(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> new TinyLfuCache<>(n, plugin, this, spec));
+    }
+
+    @Override public Map<String, DbCache.Stats> cacheStats(JavaPlugin plugin) {
+        Map<String, DbCache.Stats> out = new TreeMap<>();
+        caches.getOrDefault(plugin.getName(), Map.of()).forEach((n, c) -> out.put(n, c.stats()));
+        return out;
+    }
+
     @Override public void migrate(JavaPlugin plugin) throws SQLException {
-        String key = plugin.getName();
-        Path dir = plugin.getDataFolder().toPath().resolve(MIGRATIONS_DIR);
-        try { Files.createDirectories(dir); } catch (IOException ignored) {}
-
-        // Ensure version table exists
-        withTransaction(plugin, c -> {
-            try (Statement st = c.createStatement()) {
-                st.execute("""
-                    CREATE TABLE IF NOT EXISTS cloudconfig_schema_version (
-                      version INT PRIMARY KEY,
-                      description VARCHAR(255),
-                      installed_at TIMESTAMP NOT NULL
-                    ) ENGINE=InnoDB
-                """);
+        long blocked = profiler.enter();
+        try {
+            Path dir = plugin.getDataFolder().toPath().resolve(MIGRATIONS_DIR);
+            try { Files.createDirectories(dir); } catch (IOException ignored) {}
+            FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
+            boolean validate = cfg == null || cfg.getBoolean("migrations.validateChecksums", true);
+            int batchSize = cfg == null ? 500 : Math.max(1, cfg.getInt("migrations.batchSize", 500));
+
+            // Ensure version table exists
+            withTransaction(plugin, c -> {
+                try (Statement st = c.createStatement()) {
+                    st.execute("""
+                        CREATE TABLE IF NOT EXISTS cloudconfig_schema_version (
+                          version INT PRIMARY KEY,
+                          description VARCHAR(255),
+                          installed_at TIMESTAMP NOT NULL,
+                          checksum BIGINT NULL
+                        ) ENGINE=InnoDB
+                    """);
+                }
+                // tables created before checksums existed; ADD COLUMN IF NOT EXISTS is MariaDB-only
+                boolean hasChecksum;
+                try (PreparedStatement ps = c.prepareStatement(
+                        "SELECT 1 FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                                + "AND TABLE_NAME = 'cloudconfig_schema_version' AND COLUMN_NAME = 'checksum'");
+                     ResultSet rs = ps.executeQuery()) {
+                    hasChecksum = rs.next();
+                }
+                if (!hasChecksum) {
+                    try (Statement st = c.createStatement()) {
+                        st.execute("ALTER TABLE cloudconfig_schema_version ADD COLUMN checksum BIGINT NULL");
+                    }
+                }
+            });
+
+            // Load applied versions -> checksum (null if applied before checksums were recorded)
+            Map<Integer, Long> applied = withConnection(plugin, c -> {
+                Map<Integer, Long> map = new HashMap<>();
+                try (Statement st = c.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT version, checksum FROM cloudconfig_schema_version")) {
+                    while (rs.next()) {
+                        long sum = rs.getLong(2);
+                        map.put(rs.getInt(1), rs.wasNull() ? null : sum);
+                    }
+                }
+                return map;
+            });
+
+            // Find migration files
+            List<Migration> migrations = new ArrayList<>();
+            try (var stream = Files.list(dir)) {
+                for (Path p : stream.toList()) {
+                    Matcher m = MIGRATION_NAME.matcher(p.getFileName().toString());
+                    if (!m.matches()) continue;
+                    int ver = Integer.parseInt(m.group(1));
+                    String desc = m.group(2).replace('_', ' ');
+                    migrations.add(new Migration(ver, desc, p));
+                }
+            } catch (IOException e) {
+                throw new SQLException("Failed to list migrations in " + dir, e);
             }
-        });
+            migrations.sort(Comparator.comparingInt(m -> m.version));
 
-        // Load applied versions
-        Set<Integer> applied = withConnection(plugin, c -> {
-            Set<Integer> set = new HashSet<>();
-            try (Statement st = c.createStatement();
-                 ResultSet rs = st.executeQuery("SELECT version FROM cloudconfig_schema_version")) {
-                while (rs.next()) set.add(rs.getInt(1));
+            // Verify applied, execute pending
+            for (Migration m : migrations) {
+                if (applied.containsKey(m.version)) {
+                    verifyChecksum(plugin, m, applied.get(m.version), validate);
+                    continue;
+                }
+                applyMigration(plugin, m, batchSize);
             }
-            return set;
-        });
+        } finally {
+            profiler.exit(blocked, plugin, "migrate");
+        }
+        profiler.failIfSlow(blocked);
+    }
+
+    @Override public void setSqlVariables(JavaPlugin plugin, Map<String, String> vars) {
+        sqlVars.computeIfAbsent(plugin.getName(), k -> new HashMap<>()).putAll(vars);
+        PerPluginDatabase db = pools.get(plugin.getName());
+        if (db != null) db.queries = loadQueries(plugin);
+    }
+
+    @Override public <T> T query(JavaPlugin plugin, String name, SQLFunction<ResultSet, T> mapper, Object... params) throws SQLException {
+        long blocked = profiler.enter();
+        T result;
+        try {
+            NamedQuery q = requireQuery(plugin, name);
+            result = timed(q, () -> withConnection(plugin, c -> {
+                try (PreparedStatement ps = c.prepareStatement(q.sql)) {
+                    bind(ps, params);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return mapper.apply(rs);
+                    }
+                }
+            }));
+        } finally {
+            profiler.exit(blocked, plugin, "query");
+        }
+        profiler.failIfSlow(blocked);
+        return result;
+    }
+
+    @Override public int update(JavaPlugin plugin, String name, Object... params) throws SQLException {
+        long blocked = profiler.enter();
+        int updated;
+        try {
+            NamedQuery q = requireQuery(plugin, name);
+            updated = timed(q, () -> withConnection(plugin, c -> {
+                try (PreparedStatement ps = c.prepareStatement(q.sql)) {
+                    bind(ps, params);
+                    return ps.executeUpdate();
+                }
+            }));
+        } finally {
+            profiler.exit(blocked, plugin, "update");
+        }
+        profiler.failIfSlow(blocked);
+        return updated;
+    }
+
+    @Override public <T> Stream<T> stream(JavaPlugin plugin, String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return stream(plugin, sql, defaultFetchSize(plugin), mapper, params);
+    }
+
+    @Override public <T> Stream<T> stream(JavaPlugin plugin, String sql, int fetchSize, RowMapper<T> mapper, Object... params) throws SQLException {
+        long blocked = profiler.enter();
+        Stream<T> rows;
+        try {
+            RowIterator<T> it = openRows(plugin, sql, fetchSize, mapper, params);
+            rows = StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)
+                    .onClose(it::close);
+        } finally {
+            profiler.exit(blocked, plugin, "stream");
+        }
+        profiler.failIfSlow(blocked, rows); // releases the connection first
+        return rows;
+    }
+
+    @Override public <T> long forEachChunk(JavaPlugin plugin, String sql, int chunkSize, RowMapper<T> mapper,
+                                           SQLConsumer<List<T>> chunk, Object... params) throws SQLException {
+        long blocked = profiler.enter();
+        long rows = 0;
+        try {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+            try (RowIterator<T> it = openRows(plugin, sql, Math.max(chunkSize, defaultFetchSize(plugin)), mapper, params)) {
+                List<T> buf = new ArrayList<>(chunkSize);
+                while (it.hasNext()) {
+                    buf.add(it.next());
+                    if (buf.size() == chunkSize) {
+                        chunk.accept(buf);
+                        rows += buf.size();
+                        buf = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!buf.isEmpty()) {
+                    chunk.accept(buf);
+                    rows += buf.size();
+                }
+            } catch (UncheckedSQLException e) {
+                throw e.getCause();
+            }
+        } finally {
+            profiler.exit(blocked, plugin, "forEachChunk");
+        }
+        profiler.failIfSlow(blocked);
+        return rows;
+    }
+
+    /**
+     * Forward-only, read-only statement with a positive fetch size, which makes Connector/J stream
+     * the result in fetch-size batches instead of buffering all of it.
+     */
+    private <T> RowIterator<T> openRows(JavaPlugin plugin, String sql, int fetchSize, RowMapper<T> mapper, Object[] params) throws SQLException {
+        Connection c = connection(plugin);
+        try {
+            PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Math.max(1, fetchSize));
+            bind(ps, params);
+            return new RowIterator<>(c, ps, ps.executeQuery(), mapper);
+        } catch (SQLException | RuntimeException e) {
+            c.close(); // also closes the statement
+            throw e;
+        }
+    }
+
+    private int defaultFetchSize(JavaPlugin plugin) {
+        FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
+        return cfg == null ? 1_000 : cfg.getInt("streaming.fetchSize", 1_000);
+    }
+
+    @Override public PoolStats poolStats(JavaPlugin plugin) {
+        return requireDb(plugin).stats();
+    }
+
+    @Override public Map<String, QueryStats> queryStats(JavaPlugin plugin) {
+        Map<String, QueryStats> out = new TreeMap<>();
+        requireDb(plugin).queries.forEach((n, q) -> out.put(n, q.stats()));
+        return out;
+    }
+
+    public void shutdown() {
+        writeQueues.values().forEach(m -> m.values().forEach(BatchWriteQueue::close));
+        for (String key : writeQueues.keySet()) drainQueues(key);
+        writeQueues.clear();
+        timer.shutdownNow();
+        async.shutdown();
+        try {
+            if (!async.awaitTermination(10, TimeUnit.SECONDS)) async.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (String key : pools.keySet()) closePool(key);
+    }
+
+    // ----- helpers -----
+
+    private void recordTransaction(PerPluginDatabase db, long nanos, boolean rolledBack) {
+        if (!db.metrics.recordTransaction(nanos, rolledBack)) return;
+        cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] Slow transaction in {}: {} ms{} at {}",
+                db.plugin, TimeUnit.NANOSECONDS.toMillis(nanos), rolledBack ? " (rolled back)" : "", callSite());
+    }
+
+    /** First stack frame outside CloudConfig's core, i.e. the plugin code that started the work. */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith(CloudDatabaseServiceImpl.class.getPackageName() + "."))
+                .findFirst()
+                .map(f -> f.toStackTraceElement().toString())
+                .orElse("?"));
+    }
+
+    private CircuitBreaker breaker(String key, FileConfiguration cfg, DataSource probeTarget, PoolMetrics metrics) {
+        return new CircuitBreaker(key, probeTarget, metrics, cloudConfigPlugin.getSLF4JLogger(), timer, async,
+                cfg.getInt("circuitBreaker.failureThreshold", 5), cfg.getLong("circuitBreaker.probeIntervalMs", 2_000));
+    }
+
+    private void registerMBean(PerPluginDatabase db) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(db, mbeanName(db.plugin));
+        } catch (JMException e) {
+            cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] Could not register pool MBean for {}: {}", db.plugin, e.toString());
+        }
+    }
 
-        // Find migration files
-        List<Migration> migrations = new ArrayList<>();
+    private void unregisterMBean(String key) {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = mbeanName(key);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException ignored) {}
+    }
+
+    private static ObjectName mbeanName(String key) throws MalformedObjectNameException {
+        return new ObjectName("de.aboutcloud.cloudConfig:type=DatabasePool,plugin=" + ObjectName.quote(key));
+    }
+
+    private NamedQuery requireQuery(JavaPlugin plugin, String name) {
+        NamedQuery q = requireDb(plugin).queries.get(name);
+        if (q == null) throw new IllegalArgumentException("Unknown query " + name + " (" + QUERIES_DIR + "/" + name + ".sql)");
+        return q;
+    }
+
+    private static <T> T timed(NamedQuery q, SQLSupplier<T> work) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = work.get();
+            failed = false;
+            return result;
+        } finally {
+            q.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+    }
+
+    /** Reads config/db/queries/*.sql; the file name without .sql is the query name. */
+    private Map<String, NamedQuery> loadQueries(JavaPlugin plugin) {
+        Path dir = plugin.getDataFolder().toPath().resolve(QUERIES_DIR);
+        if (Files.notExists(dir)) return Map.of();
+        Map<String, String> vars = sqlVars.getOrDefault(plugin.getName(), Map.of());
+        Map<String, NamedQuery> out = new HashMap<>();
         try (var stream = Files.list(dir)) {
             for (Path p : stream.toList()) {
-                Matcher m = MIGRATION_NAME.matcher(p.getFileName().toString());
-                if (!m.matches()) continue;
-                int ver = Integer.parseInt(m.group(1));
-                String desc = m.group(2).replace('_', ' ');
-                migrations.add(new Migration(ver, desc, p));
+                String file = p.getFileName().toString();
+                if (!file.endsWith(".sql")) continue;
+                String name = file.substring(0, file.length() - 4);
+                String sql = substituteVars(Files.readString(p, StandardCharsets.UTF_8), vars).strip();
+                while (sql.endsWith(";")) sql = sql.substring(0, sql.length() - 1).strip();
+                out.put(name, new NamedQuery(name, sql));
             }
         } catch (IOException e) {
-            throw new SQLException("Failed to list migrations in " + dir, e);
+            cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Failed loading queries of {}", plugin.getName(), e);
+        }
+        return Map.copyOf(out);
+    }
+
+    /** Single pass ${var} substitution; unknown variables are left as they are. */
+    private static String substituteVars(String sql, Map<String, String> vars) {
+        Matcher m = SQL_VAR.matcher(sql);
+        StringBuilder sb = new StringBuilder(sql.length());
+        while (m.find()) {
+            String v = vars.get(m.group(1));
+            m.appendReplacement(sb, Matcher.quoteReplacement(v != null ? v : m.group()));
         }
-        migrations.sort(Comparator.comparingInt(m -> m.version));
+        return m.appendTail(sb).toString();
+    }
 
-        // Execute pending
-        for (Migration m : migrations) {
-            if (applied.contains(m.version)) continue;
-            applyMigration(plugin, m);
+    /** Drains the plugin's write queues, then closes its pool. */
+    private void closePool(String key) {
+        if (!pools.containsKey(key)) return;
+        drainQueues(key);
+        PerPluginDatabase db = pools.remove(key);
+        if (db == null) return;
+        unregisterMBean(key);
+        db.breaker.stop();
+        if (db.replicas != null) db.replicas.close();
+        if (!db.shared()) {
+            db.hikari.close();
+            return;
+        }
+        synchronized (sharedPools) {
+            SharedPool sp = db.tenant.owner();
+            if (sp.leave(db.tenant)) {
+                sharedPools.remove(sp.key, sp);
+                sp.close();
+            }
         }
     }
 
-    @Override public void setSqlVariables(JavaPlugin plugin, Map<String, String> vars) {
-        sqlVars.computeIfAbsent(plugin.getName(), k -> new HashMap<>()).putAll(vars);
+    /**
+     * Runs on the caller's thread: during an async bootstrap that thread is marked BOOTSTRAPPING,
+     * so the writes reach the old pool instead of waiting for the readiness future they block.
+     */
+    private void drainQueues(String key) {
+        for (BatchWriteQueue q : writeQueues.getOrDefault(key, Map.of()).values()) {
+            if (q.pending() == 0) continue;
+            try {
+                q.drain();
+            } catch (SQLException | RuntimeException e) {
+                cloudConfigPlugin.getSLF4JLogger().error("[CloudConfig] Could not flush {} pending writes of {}/{} before closing its pool",
+                        q.pending(), key, q.name(), e);
+            }
+        }
     }
 
-    // ----- helpers -----
+    private PerPluginDatabase requireDb(JavaPlugin plugin) {
+        CompletableFuture<Void> ready = readiness.get(plugin.getName());
+        if (ready != null && !plugin.getName().equals(BOOTSTRAPPING.get())) awaitReady(plugin, ready);
+        PerPluginDatabase db = pools.get(plugin.getName());
+        if (db == null) throw new IllegalStateException("No DataSource for " + plugin.getName() + " (call ensurePool)");
+        return db;
+    }
 
-    private void applyMigration(JavaPlugin plugin, Migration mig) throws SQLException {
+    /**
+     * Waits for a running async bootstrap. The server thread never waits: it fails fast so a slow
+     * database cannot stall the tick; worker threads wait up to pool.connectionTimeoutMs.
+     */
+    private void awaitReady(JavaPlugin plugin, CompletableFuture<Void> ready) {
         String key = plugin.getName();
-        String sql;
-        try {
-            sql = Files.readString(mig.path, StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new SQLException("Failed reading " + mig.path, e);
+        if (!ready.isDone()) {
+            if (plugin.getServer().isPrimaryThread()) {
+                throw new IllegalStateException("Database of " + key + " is still starting (wait for ready() or use the async methods)");
+            }
+            FileConfiguration cfg = cfgService.getConfig(plugin, CFG_FILE);
+            long waitMs = cfg == null ? 10_000 : cfg.getLong("pool.connectionTimeoutMs", 10_000);
+            try {
+                ready.get(waitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Database of " + key + " not ready after " + waitMs + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for database of " + key, e);
+            } catch (ExecutionException e) {
+                // reported below
+            }
+        }
+        if (ready.isCompletedExceptionally()) {
+            Throwable cause = ready.exceptionNow();
+            throw new IllegalStateException("Database bootstrap of " + key + " failed: " + cause.getMessage(), cause);
         }
+    }
 
-        // Replace ${var} placeholders
-        Map<String,String> vars = sqlVars.getOrDefault(key, Map.of());
-        for (var e : vars.entrySet()) {
-            sql = sql.replace("${" + e.getKey() + "}", e.getValue());
+    /** Runs {@code work} on a virtual thread once one of the plugin's pool-sized permits is free. */
+    private <T> CompletableFuture<T> submit(JavaPlugin plugin, SQLSupplier<T> work, boolean completeOnMainThread) {
+        CompletableFuture<Void> ready = readiness.get(plugin.getName());
+        if (ready != null && !ready.isDone()) {
+            // queue behind the bootstrap instead of failing on the server thread
+            return ready.thenCompose(v -> submit(plugin, work, completeOnMainThread));
         }
+        Semaphore permits = requireDb(plugin).asyncPermits;
+        CompletableFuture<T> f = new CompletableFuture<>();
+        async.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    f.complete(work.get());
+                } finally {
+                    permits.release();
+                }
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            }
+        });
+        if (!completeOnMainThread) return f;
+        Executor main = plugin.getServer().getScheduler().getMainThreadExecutor(plugin);
+        return f.whenCompleteAsync((v, ex) -> {}, main);
+    }
 
-        String finalSql = sql;
-        withTransaction(plugin, c -> {
-            // naive splitter: handles ; outside quotes
-            for (String stmt : splitSqlStatements(finalSql)) {
-                if (stmt.isBlank()) continue;
-                try (Statement s = c.createStatement()) {
-                    s.execute(stmt);
+    /** Streams the file statement by statement; consecutive DML statements go out as JDBC batches. */
+    private void applyMigration(JavaPlugin plugin, Migration mig, int batchSize) throws SQLException {
+        String key = plugin.getName();
+        Map<String,String> vars = sqlVars.getOrDefault(key, Map.of());
+        long start = System.nanoTime();
+        int[] executed = {0};
+
+        transactionOnce(plugin, c -> {
+            CRC32C crc = new CRC32C();
+            try (SqlScript script = SqlScript.open(mig.path, vars, crc);
+                 Statement st = c.createStatement()) {
+                int batched = 0;
+                for (String stmt; (stmt = script.next()) != null; ) {
+                    executed[0]++;
+                    if (SqlScript.isBatchable(stmt)) {
+                        st.addBatch(stmt);
+                        if (++batched < batchSize) continue;
+                        try {
+                            st.executeBatch();
+                        } catch (SQLException e) {
+                            throw migrationError(mig, executed[0], batched, null, e);
+                        }
+                        batched = 0;
+                        continue;
+                    }
+                    if (batched > 0) {
+                        try {
+                            st.executeBatch();
+                        } catch (SQLException e) {
+                            // the batch ends right before this statement, which never ran
+                            throw migrationError(mig, executed[0] - 1, batched, null, e);
+                        }
+                        batched = 0;
+                    }
+                    try {
+                        st.execute(stmt);
+                    } catch (SQLException e) {
+                        throw migrationError(mig, executed[0], 0, stmt, e);
+                    }
+                }
+                if (batched > 0) {
+                    try {
+                        st.executeBatch();
+                    } catch (SQLException e) {
+                        throw migrationError(mig, executed[0], batched, null, e);
+                    }
                 }
+            } catch (IOException e) {
+                throw new SQLException("Failed reading " + mig.path, e);
             }
             try (PreparedStatement ps = c.prepareStatement(
-                    "INSERT INTO cloudconfig_schema_version(version, description, installed_at) VALUES (?,?,?)")) {
+                    "INSERT INTO cloudconfig_schema_version(version, description, installed_at, checksum) VALUES (?,?,?,?)")) {
                 ps.setInt(1, mig.version);
                 ps.setString(2, mig.description);
                 ps.setTimestamp(3, Timestamp.from(Instant.now()));
+                ps.setLong(4, crc.getValue());
                 ps.executeUpdate();
             }
         });
 
-        cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Applied {} V{} ({})", key, mig.version, mig.description);
+        cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] Applied {} V{} ({}): {} statements in {} ms", key, mig.version,
+                mig.description, executed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static SQLException migrationError(Migration mig, int index, int batched, String stmt, SQLException cause) {
+        String where = batched > 0
+                ? "batch of " + batched + " statements ending at #" + index
+                : "statement #" + index + ": " + abbreviate(stmt);
+        return new SQLException("V" + mig.version + " (" + mig.path.getFileName() + ") failed at " + where
+                + ": " + cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+    }
+
+    private static String abbreviate(String stmt) {
+        String s = stmt.replaceAll("\\s+", " ");
+        return s.length() <= 120 ? s : s.substring(0, 117) + "...";
     }
 
-    private static List<String> splitSqlStatements(String sql) {
+    /** Compares an applied migration with its file; stored checksums of older installs are backfilled. */
+    private void verifyChecksum(JavaPlugin plugin, Migration mig, Long stored, boolean strict) throws SQLException {
+        long actual;
+        try {
+            actual = SqlScript.checksum(mig.path);
+        } catch (IOException e) {
+            throw new SQLException("Failed reading " + mig.path, e);
+        }
+        if (stored == null) {
+            withConnection(plugin, c -> {
+                try (PreparedStatement ps = c.prepareStatement("UPDATE cloudconfig_schema_version SET checksum = ? WHERE version = ?")) {
+                    ps.setLong(1, actual);
+                    ps.setInt(2, mig.version);
+                    return ps.executeUpdate();
+                }
+            });
+            return;
+        }
+        if (stored == actual) return;
+        String msg = "Migration V" + mig.version + " (" + mig.path.getFileName() + ") of " + plugin.getName()
+                + " was modified after it was applied";
+        if (strict) throw new SQLException(msg + " (set migrations.validateChecksums: false to ignore)");
+        cloudConfigPlugin.getSLF4JLogger().warn("[CloudConfig] {}", msg);
+    }
+
+    private static String jdbcUrl(String host, int port, String database, boolean ssl) {
+        return "jdbc:mariadb://" + host + ":" + port + "/" + database + "?useUnicode=true&characterEncoding=utf8"
+                + (ssl ? "&useSsl=true" : "&useSsl=false");
+    }
+
+    /** Pools for the replicas list in database.yml; null if there is none. */
+    private ReplicaSet createReplicas(String key, FileConfiguration cfg, String database, String user, String password, boolean ssl) {
+        List<Map<?, ?>> raw = cfg.getMapList("replicas");
+        if (raw.isEmpty()) return null;
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < raw.size(); i++) {
+            ConfigurationSection rc = replicaConfig(cfg, raw.get(i));
+            String host = rc.getString("host", "127.0.0.1");
+            int port = rc.getInt("port", 3306);
+            String name = host + ":" + port;
+            HikariConfig hc = hikariConfig(rc, jdbcUrl(host, port, database, rc.getBoolean("useSsl", ssl)),
+                    rc.getString("user", user), String.valueOf(rc.get("password", password)),
+                    "CloudDB-" + key + "-replica-" + i, rc.getInt("pool.maxPoolSize", 10), null);
+            hc.setReadOnly(true);
+            hc.setInitializationFailTimeout(-1); // an unreachable replica must not fail the bootstrap
+            replicas.add(new ReplicaSet.Replica(name, new HikariDataSource(hc), rc.getInt("weight", 1)));
+        }
+        cloudConfigPlugin.getSLF4JLogger().info("[CloudConfig] {} routes reads across {} replica(s)", key, replicas.size());
+        return new ReplicaSet(key, replicas, cfg.getLong("readRouting.maxLagSeconds", 0),
+                cfg.getBoolean("readRouting.fallbackToPrimary", true), cloudConfigPlugin.getSLF4JLogger(),
+                timer, async, Math.max(1_000, cfg.getLong("readRouting.healthCheckMs", 5_000)));
+    }
+
+    /** The primary's settings overlaid with one replicas entry, so unset pool options are inherited. */
+    private static ConfigurationSection replicaConfig(FileConfiguration primary, Map<?, ?> entry) {
+        MemoryConfiguration out = new MemoryConfiguration();
+        for (String k : primary.getKeys(true)) {
+            if (k.equals("replicas") || !k.startsWith("pool.") && !k.equals("useSsl")) continue;
+            if (!primary.isConfigurationSection(k)) out.set(k, primary.get(k));
+        }
+        ConfigurationSection r = new MemoryConfiguration().createSection("replica", entry);
+        for (String k : r.getKeys(true)) {
+            if (!r.isConfigurationSection(k)) out.set(k, r.get(k));
+        }
+        return out;
+    }
+
+    private static HikariConfig hikariConfig(ConfigurationSection cfg, String jdbc, String user, String password,
+                                             String poolName, int maxPoolSize, PoolMetrics metrics) {
+        try {
+            Class.forName("org.mariadb.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        HikariConfig hc = new HikariConfig();
+        hc.setJdbcUrl(jdbc);
+        hc.setUsername(user);
+        hc.setPassword(password);
+        hc.setDriverClassName("org.mariadb.jdbc.Driver");
+        hc.setPoolName(poolName);
+        hc.setMaximumPoolSize(maxPoolSize);
+        hc.setMinimumIdle(cfg.getInt("pool.minIdle", 2));
+        hc.setConnectionTimeout(cfg.getLong("pool.connectionTimeoutMs", 10_000));
+        hc.setIdleTimeout(cfg.getLong("pool.idleTimeoutMs", 600_000));
+        hc.setMaxLifetime(cfg.getLong("pool.maxLifetimeMs", 1_800_000));
+        if (metrics != null) hc.setMetricsTrackerFactory((name, stats) -> metrics);
+        // opt-in, since they change how every statement of the pool is sent:
+        // MariaDB Connector/J 3 sends JDBC batches (write queues, migrations) via the bulk protocol
+        if (cfg.getBoolean("pool.bulkStatements", false)) {
+            hc.addDataSourceProperty("useBulkStmts", "true");
+        }
+        // and prepared statements (named queries) as server-side ones, cached per connection
+        if (cfg.getBoolean("pool.serverPrepStmts", false)) {
+            hc.addDataSourceProperty("useServerPrepStmts", "true");
+            hc.addDataSourceProperty("cachePrepStmts", "true");
+            hc.addDataSourceProperty("prepStmtCacheSize", String.valueOf(cfg.getInt("pool.prepStmtCacheSize", 250)));
+        }
+        if (cfg.getBoolean("pool.allowMysqlCompat", false)) {
+            hc.addDataSourceProperty("useMysqlMetadata", "true");
+        }
+        return hc;
+    }
+
+    /** Pool-wide settings of {@code wanted} that differ from the already running shared pool. */
+    private static List<String> poolSettingConflicts(HikariConfig wanted, HikariDataSource running) {
         List<String> out = new ArrayList<>();
-        StringBuilder cur = new StringBuilder();
-        boolean sQuote = false, dQuote = false;
-        for (int i = 0; i < sql.length(); i++) {
-            char ch = sql.charAt(i);
-            if (ch == '\'' && !dQuote) sQuote = !sQuote;
-            else if (ch == '"' && !sQuote) dQuote = !dQuote;
-
-            if (ch == ';' && !sQuote && !dQuote) {
-                out.add(cur.toString().trim());
-                cur.setLength(0);
-            } else {
-                cur.append(ch);
-            }
+        if (wanted.getConnectionTimeout() != running.getConnectionTimeout()) {
+            out.add("connectionTimeoutMs " + wanted.getConnectionTimeout() + " (pool: " + running.getConnectionTimeout() + ")");
+        }
+        if (wanted.getIdleTimeout() != running.getIdleTimeout()) {
+            out.add("idleTimeoutMs " + wanted.getIdleTimeout() + " (pool: " + running.getIdleTimeout() + ")");
+        }
+        if (wanted.getMaxLifetime() != running.getMaxLifetime()) {
+            out.add("maxLifetimeMs " + wanted.getMaxLifetime() + " (pool: " + running.getMaxLifetime() + ")");
+        }
+        if (!wanted.getDataSourceProperties().equals(running.getDataSourceProperties())) {
+            out.add("driver properties " + wanted.getDataSourceProperties() + " (pool: " + running.getDataSourceProperties() + ")");
         }
-        if (!cur.isEmpty()) out.add(cur.toString().trim());
         return out;
     }
 
@@ -264,5 +1061,19 @@ public final class CloudDatabaseServiceImpl implements CloudDatabaseService {
         return s.replaceAll("([a-z])([A-Z])", "$1_$2").replaceAll("[^a-zA-Z0-9]+", "_").toLowerCase(Locale.ROOT);
     }
 
+    @FunctionalInterface private interface SQLSupplier<T> { T get() throws SQLException; }
+
+    /** A commit that failed; carries the driver's exception and is unwrapped before it reaches callers. */
+    private static final class CommitFailedException extends SQLException {
+        CommitFailedException(SQLException cause) {
+            super(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
     private record Migration(int version, String description, Path path) {}
 }
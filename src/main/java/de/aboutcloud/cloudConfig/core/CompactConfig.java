@@ -0,0 +1,642 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.ConfigView;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Read-only config in a few flat arrays instead of a MemorySection tree. Built straight from
+ * SnakeYAML's event stream: every key is one row (interned key segment, parent row, full-path hash,
+ * type, unboxed value), equal strings share one instance and numbers and booleans are not boxed.
+ * A lookup hashes the path once (String caches it, so literal paths cost nothing), probes an
+ * open-addressing table and compares the path against the key segments in place.
+ * <p>
+ * Anchors, merge keys, serialized objects ({@code ==}) and other tags are left to Bukkit's loader,
+ * whose result is converted afterwards, so values always match what {@code getConfig} would return.
+ */
+final class CompactConfig {
+    /** Where the YAML comes from; opened a second time if Bukkit's loader has to take over. */
+    interface Source {
+        Reader open() throws IOException;
+    }
+
+    static final CompactConfig EMPTY = new Builder().finish();
+
+    private static final int ROOT = -1;
+    private static final int MISSING = -2;
+    private static final byte SECTION = 0, STRING = 1, LONG = 2, DOUBLE = 3, BOOLEAN = 4, OBJECT = 5;
+    private static final Resolver RESOLVER = new Resolver();
+
+    private final String[] keys;
+    private final int[] parents;
+    private final int[] hashes;
+    private final byte[] types;
+    private final long[] values;   // number/boolean bits, index into refs, or (childStart << 32 | childCount)
+    private final Object[] refs;   // strings, unmodifiable lists and other objects
+    private final int[] children;  // child rows of each section, contiguous and in file order
+    private final int[] table;     // row + 1, 0 = empty slot
+    private final int shift;       // 32 - log2(table.length)
+    private final long root;
+
+    private CompactConfig(Builder b, int[] children, int[] table, long root) {
+        this.keys = Arrays.copyOf(b.keys, b.size);
+        this.parents = Arrays.copyOf(b.parents, b.size);
+        this.hashes = Arrays.copyOf(b.hashes, b.size);
+        this.types = Arrays.copyOf(b.types, b.size);
+        this.values = Arrays.copyOf(b.values, b.size);
+        this.refs = b.refs.toArray();
+        this.children = children;
+        this.table = table;
+        this.shift = 32 - Integer.numberOfTrailingZeros(table.length);
+        this.root = root;
+    }
+
+    /** Root view; lookups that miss fall back to {@code defaults} (may be null). */
+    ConfigView view(CompactConfig defaults) {
+        return new View(ROOT, defaults == null ? null : defaults.new View(ROOT, null));
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    static CompactConfig load(Source source) throws IOException, InvalidConfigurationException {
+        try (Reader in = source.open()) {
+            return parse(in);
+        } catch (Unsupported e) {
+            YamlConfiguration cfg = new YamlConfiguration();
+            try (Reader in = source.open()) {
+                cfg.load(in);
+            }
+            return of(cfg);
+        }
+    }
+
+    /** Converts an already loaded section (without its defaults). */
+    static CompactConfig of(ConfigurationSection section) {
+        Builder b = new Builder();
+        b.copy(ROOT, section);
+        return b.finish();
+    }
+
+    // ----- parsing -----
+
+    private static CompactConfig parse(Reader in) {
+        LoaderOptions opts = new LoaderOptions();
+        opts.setCodePointLimit(Integer.MAX_VALUE);
+        Builder b = new Builder();
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        boolean document = false;
+        for (Event e : new Yaml(opts).parse(in)) {
+            switch (e.getEventId()) {
+                case DocumentStart -> {
+                    if (document) throw new Unsupported("more than one document");
+                    document = true;
+                }
+                case MappingStart -> {
+                    Frame top = stack.peek();
+                    if (top == null) {
+                        if (b.size > 0) throw new Unsupported("more than one top-level node");
+                        stack.push(new Frame(ROOT));
+                    } else if (top.section && top.key != null) {
+                        int row = b.add(top.node, top.key, SECTION, 0);
+                        top.key = null;
+                        stack.push(new Frame(row));
+                    } else {
+                        if (top.expectsKey()) throw new Unsupported("complex key");
+                        stack.push(Frame.map());
+                    }
+                }
+                case SequenceStart -> {
+                    Frame top = stack.peek();
+                    if (top == null) throw new Unsupported("top level is not a map");
+                    if (top.expectsKey()) throw new Unsupported("complex key");
+                    stack.push(Frame.list());
+                }
+                case MappingEnd -> {
+                    Frame f = stack.pop();
+                    if (!f.section) deliver(b, stack, Collections.unmodifiableMap(f.map));
+                }
+                case SequenceEnd -> deliver(b, stack, list(stack.pop().list.toArray()));
+                case Scalar -> {
+                    Frame top = stack.peek();
+                    if (top == null) throw new Unsupported("top level is not a map");
+                    Object v = b.scalar((ScalarEvent) e);
+                    if (top.expectsKey() && "==".equals(v)) throw new Unsupported("serialized object");
+                    if (top.section && top.key == null) {
+                        String k = String.valueOf(v); // Bukkit stringifies keys too
+                        if (k.indexOf('.') >= 0) throw new Unsupported("key contains the path separator");
+                        top.key = b.intern(k);
+                    } else {
+                        deliver(b, stack, v);
+                    }
+                }
+                case Alias -> throw new Unsupported("alias");
+                default -> {}
+            }
+        }
+        return b.finish();
+    }
+
+    private static void deliver(Builder b, ArrayDeque<Frame> stack, Object v) {
+        Frame top = stack.peek();
+        if (top.section) {
+            if (v != null) b.addValue(top.node, top.key, v); // null removes the key in Bukkit as well
+            top.key = null;
+        } else if (top.list != null) {
+            top.list.add(v);
+        } else if (!top.hasKey) {
+            if (v instanceof Map || v instanceof List) throw new Unsupported("complex key");
+            top.mapKey = v;
+            top.hasKey = true;
+        } else {
+            top.map.put(top.mapKey, v);
+            top.hasKey = false;
+        }
+    }
+
+    private static final class Frame {
+        final boolean section;
+        final int node;
+        String key;
+        final List<Object> list;
+        final Map<Object, Object> map;
+        Object mapKey;
+        boolean hasKey;
+
+        Frame(int node) {
+            this(true, node, null, null);
+        }
+
+        private Frame(boolean section, int node, List<Object> list, Map<Object, Object> map) {
+            this.section = section;
+            this.node = node;
+            this.list = list;
+            this.map = map;
+        }
+
+        static Frame list() {
+            return new Frame(false, MISSING, new ArrayList<>(), null);
+        }
+
+        static Frame map() {
+            return new Frame(false, MISSING, null, new LinkedHashMap<>());
+        }
+
+        boolean expectsKey() {
+            return section ? key == null : map != null && !hasKey;
+        }
+    }
+
+    /** Thrown for constructs the event parser leaves to Bukkit's loader. */
+    private static final class Unsupported extends RuntimeException {
+        Unsupported(String what) {
+            super(what, null, false, false);
+        }
+    }
+
+    // ----- building -----
+
+    private static final class Builder {
+        String[] keys = new String[64];
+        int[] parents = new int[64];
+        int[] hashes = new int[64];
+        byte[] types = new byte[64];
+        long[] values = new long[64];
+        int size;
+        final List<Object> refs = new ArrayList<>();
+        final Map<String, String> pool = new HashMap<>();
+
+        String intern(String s) {
+            String p = pool.putIfAbsent(s, s);
+            return p != null ? p : s;
+        }
+
+        int add(int parent, String key, byte type, long value) {
+            if (size == keys.length) {
+                int cap = size * 2;
+                keys = Arrays.copyOf(keys, cap);
+                parents = Arrays.copyOf(parents, cap);
+                hashes = Arrays.copyOf(hashes, cap);
+                types = Arrays.copyOf(types, cap);
+                values = Arrays.copyOf(values, cap);
+            }
+            keys[size] = key;
+            parents[size] = parent;
+            hashes[size] = parent == ROOT ? key.hashCode() : extend(hashes[parent], key);
+            types[size] = type;
+            values[size] = value;
+            return size++;
+        }
+
+        void addValue(int parent, String key, Object v) {
+            switch (v) {
+                case Integer i -> add(parent, key, LONG, i);
+                case Long l -> add(parent, key, LONG, l);
+                case Short s -> add(parent, key, LONG, s);
+                case Byte by -> add(parent, key, LONG, by);
+                case Double d -> add(parent, key, DOUBLE, Double.doubleToRawLongBits(d));
+                case Float f -> add(parent, key, DOUBLE, Double.doubleToRawLongBits(f));
+                case Boolean bo -> add(parent, key, BOOLEAN, bo ? 1 : 0);
+                case String s -> add(parent, key, STRING, ref(intern(s)));
+                default -> add(parent, key, OBJECT, ref(v));
+            }
+        }
+
+        private int ref(Object o) {
+            refs.add(o);
+            return refs.size() - 1;
+        }
+
+        void copy(int parent, ConfigurationSection section) {
+            for (String k : section.getKeys(false)) {
+                Object v = section.get(k);
+                if (v instanceof ConfigurationSection cs) {
+                    copy(add(parent, intern(k), SECTION, 0), cs);
+                } else if (v != null) {
+                    addValue(parent, intern(k), plain(v));
+                }
+            }
+        }
+
+        /** Lists and maps from Bukkit's loader, made unmodifiable with deduplicated strings. */
+        private Object plain(Object v) {
+            if (v instanceof String s) return intern(s);
+            if (v instanceof List<?> l) {
+                Object[] out = new Object[l.size()];
+                for (int i = 0; i < out.length; i++) out[i] = plain(l.get(i));
+                return list(out);
+            }
+            if (v instanceof Map<?, ?> m) {
+                Map<Object, Object> out = new LinkedHashMap<>();
+                m.forEach((k, x) -> out.put(plain(k), plain(x)));
+                return Collections.unmodifiableMap(out);
+            }
+            return v;
+        }
+
+        /** Same types as SnakeYAML's SafeConstructor for the core schema. */
+        Object scalar(ScalarEvent e) {
+            String v = e.getValue();
+            Tag tag;
+            if (e.getTag() != null && !"!".equals(e.getTag())) tag = new Tag(e.getTag());
+            else if (e.getImplicit().canOmitTagInPlainScalar()) tag = RESOLVER.resolve(NodeId.scalar, v, true);
+            else tag = Tag.STR;
+
+            if (tag.equals(Tag.STR)) return intern(v);
+            if (tag.equals(Tag.NULL)) return null;
+            if (tag.equals(Tag.BOOL)) return switch (v.toLowerCase(Locale.ROOT)) {
+                case "yes", "true", "on" -> Boolean.TRUE;
+                default -> Boolean.FALSE;
+            };
+            if (tag.equals(Tag.INT)) return parseInt(v);
+            if (tag.equals(Tag.FLOAT)) return parseFloat(v);
+            throw new Unsupported("tag " + tag);
+        }
+
+        CompactConfig finish() {
+            // children grouped by parent; rows were added in file order, so each group stays in order
+            int[] start = new int[size + 2];
+            for (int i = 0; i < size; i++) start[parents[i] + 2]++;
+            for (int i = 1; i < start.length; i++) start[i] += start[i - 1];
+            int[] children = new int[size];
+            int[] fill = Arrays.copyOf(start, start.length);
+            for (int i = 0; i < size; i++) children[fill[parents[i] + 1]++] = i;
+            for (int i = 0; i < size; i++) {
+                if (types[i] == SECTION) values[i] = pack(start[i + 1], start[i + 2] - start[i + 1]);
+            }
+            long root = pack(start[0], start[1] - start[0]);
+
+            int cap = Integer.highestOneBit(Math.max(2, size + size / 2) - 1) << 1; // load factor 1/3 to 2/3
+            int shift = 32 - Integer.numberOfTrailingZeros(cap);
+            int[] table = new int[cap];
+            for (int i = 0; i < size; i++) {
+                int slot = slot(hashes[i], shift);
+                while (table[slot] != 0) {
+                    int other = table[slot] - 1;
+                    if (hashes[other] == hashes[i] && samePath(other, i)) throw new Unsupported("duplicate key");
+                    slot = (slot + 1) & (cap - 1);
+                }
+                table[slot] = i + 1;
+            }
+            return new CompactConfig(this, children, table, root);
+        }
+
+        private boolean samePath(int a, int b) {
+            while (true) {
+                if (a == b) return true;
+                if (a == ROOT || b == ROOT || !keys[a].equals(keys[b])) return false;
+                a = parents[a];
+                b = parents[b];
+            }
+        }
+    }
+
+    private static List<Object> list(Object[] items) {
+        for (Object o : items) {
+            if (o == null) return Collections.unmodifiableList(Arrays.asList(items));
+        }
+        return List.of(items);
+    }
+
+    private static Number parseInt(String raw) {
+        String v = raw.replace("_", "");
+        int sign = 1;
+        if (v.startsWith("-")) {
+            sign = -1;
+            v = v.substring(1);
+        } else if (v.startsWith("+")) {
+            v = v.substring(1);
+        }
+        if (v.equals("0")) return 0;
+        int radix = 10;
+        if (v.startsWith("0b")) {
+            v = v.substring(2);
+            radix = 2;
+        } else if (v.startsWith("0x")) {
+            v = v.substring(2);
+            radix = 16;
+        } else if (v.startsWith("0")) {
+            v = v.substring(1);
+            radix = 8;
+        } else if (v.indexOf(':') >= 0) {
+            String[] digits = v.split(":");
+            long val = 0, bes = 1;
+            for (int i = digits.length - 1; i >= 0; i--) {
+                val += Long.parseLong(digits[i]) * bes;
+                bes *= 60;
+            }
+            v = Long.toString(val);
+        }
+        if (sign < 0) v = "-" + v;
+        try {
+            return Integer.valueOf(v, radix);
+        } catch (NumberFormatException e) {
+            try {
+                return Long.valueOf(v, radix);
+            } catch (NumberFormatException e2) {
+                return new BigInteger(v, radix);
+            }
+        }
+    }
+
+    private static Double parseFloat(String raw) {
+        String v = raw.replace("_", "").toLowerCase(Locale.ROOT);
+        int sign = 1;
+        if (v.startsWith("-")) {
+            sign = -1;
+            v = v.substring(1);
+        } else if (v.startsWith("+")) {
+            v = v.substring(1);
+        }
+        if (v.equals(".inf")) return sign < 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        if (v.equals(".nan")) return Double.NaN;
+        if (v.indexOf(':') >= 0) {
+            String[] digits = v.split(":");
+            double val = 0, bes = 1;
+            for (int i = digits.length - 1; i >= 0; i--) {
+                val += Double.parseDouble(digits[i]) * bes;
+                bes *= 60;
+            }
+            return sign * val;
+        }
+        return sign * Double.parseDouble(v);
+    }
+
+    // ----- lookup -----
+
+    private static long pack(int start, int count) {
+        return (long) start << 32 | count;
+    }
+
+    /** Fibonacci hashing: paths differing in one digit have nearby String hashes, the top bits of the product do not. */
+    private static int slot(int h, int shift) {
+        return (h * 0x9E3779B9) >>> shift;
+    }
+
+    /** String.hashCode() of {@code prefix + "." + s}, given the hash of prefix. */
+    private static int extend(int prefixHash, String s) {
+        int h = prefixHash * 31 + '.';
+        for (int i = 0, n = s.length(); i < n; i++) h *= 31;
+        return h + s.hashCode();
+    }
+
+    private int find(int base, String path) {
+        int h = base == ROOT ? path.hashCode() : extend(hashes[base], path);
+        int mask = table.length - 1;
+        for (int slot = slot(h, shift); ; slot = (slot + 1) & mask) {
+            int e = table[slot];
+            if (e == 0) return MISSING;
+            int row = e - 1;
+            if (hashes[row] == h && matches(row, base, path)) return row;
+        }
+    }
+
+    /** Whether {@code row} is {@code base + "." + path}, comparing key segments from the end. */
+    private boolean matches(int row, int base, String path) {
+        int end = path.length();
+        while (true) {
+            String k = keys[row];
+            int start = end - k.length();
+            if (start < 0 || !path.regionMatches(start, k, 0, k.length())) return false;
+            int p = parents[row];
+            if (start == 0) return p == base;
+            if (p == base || p == ROOT || path.charAt(start - 1) != '.') return false;
+            end = start - 1;
+            row = p;
+        }
+    }
+
+    private boolean isNumber(int row) {
+        byte t = types[row];
+        return t == LONG || t == DOUBLE || (t == OBJECT && refs[(int) values[row]] instanceof Number);
+    }
+
+    private long asLong(int row) {
+        return switch (types[row]) {
+            case LONG -> values[row];
+            case DOUBLE -> (long) Double.longBitsToDouble(values[row]);
+            default -> ((Number) refs[(int) values[row]]).longValue();
+        };
+    }
+
+    /** Number.intValue(): doubles saturate, longs truncate. */
+    private int asInt(int row) {
+        return types[row] == DOUBLE ? (int) Double.longBitsToDouble(values[row]) : (int) asLong(row);
+    }
+
+    private double asDouble(int row) {
+        return switch (types[row]) {
+            case LONG -> values[row];
+            case DOUBLE -> Double.longBitsToDouble(values[row]);
+            default -> ((Number) refs[(int) values[row]]).doubleValue();
+        };
+    }
+
+    private Object value(int row, View defaults) {
+        long v = values[row];
+        return switch (types[row]) {
+            case SECTION -> new View(row, defaults);
+            case LONG -> v == (int) v ? (Object) (int) v : (Object) v; // Integer when it fits, like SnakeYAML
+            case DOUBLE -> Double.longBitsToDouble(v);
+            case BOOLEAN -> v != 0;
+            default -> refs[(int) v];
+        };
+    }
+
+    private final class View implements ConfigView {
+        private final int base;
+        private final View defaults;
+
+        View(int base, View defaults) {
+            this.base = base;
+            this.defaults = defaults;
+        }
+
+        private View defaultSection(String path) {
+            return defaults == null ? null : (View) defaults.getSection(path);
+        }
+
+        @Override
+        public boolean contains(String path) {
+            return path.isEmpty() || find(base, path) >= 0 || (defaults != null && defaults.contains(path));
+        }
+
+        @Override
+        public boolean isSection(String path) {
+            return getSection(path) != null;
+        }
+
+        @Override
+        public ConfigView getSection(String path) {
+            if (path.isEmpty()) return this;
+            int row = find(base, path);
+            if (row >= 0) return types[row] == SECTION ? new View(row, defaultSection(path)) : null;
+            return defaultSection(path);
+        }
+
+        @Override
+        public Set<String> getKeys() {
+            long range = base == ROOT ? root : values[base];
+            int start = (int) (range >>> 32), count = (int) range;
+            Set<String> out = new LinkedHashSet<>();
+            for (int i = start; i < start + count; i++) out.add(keys[children[i]]);
+            if (defaults != null) out.addAll(defaults.getKeys());
+            return Collections.unmodifiableSet(out);
+        }
+
+        @Override
+        public Object get(String path) {
+            if (path.isEmpty()) return this;
+            int row = find(base, path);
+            if (row >= 0) return value(row, types[row] == SECTION ? defaultSection(path) : null);
+            return defaults == null ? null : defaults.get(path);
+        }
+
+        @Override
+        public String getString(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults == null ? null : defaults.getString(path);
+            return string(row, null);
+        }
+
+        @Override
+        public String getString(String path, String def) {
+            int row = find(base, path);
+            return row < 0 ? def : string(row, def);
+        }
+
+        private String string(int row, String def) {
+            return switch (types[row]) {
+                case STRING -> (String) refs[(int) values[row]];
+                case SECTION -> def;
+                default -> String.valueOf(value(row, null));
+            };
+        }
+
+        @Override
+        public int getInt(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults == null ? 0 : defaults.getInt(path);
+            return isNumber(row) ? asInt(row) : 0;
+        }
+
+        @Override
+        public int getInt(String path, int def) {
+            int row = find(base, path);
+            return row >= 0 && isNumber(row) ? asInt(row) : def;
+        }
+
+        @Override
+        public long getLong(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults == null ? 0 : defaults.getLong(path);
+            return isNumber(row) ? asLong(row) : 0;
+        }
+
+        @Override
+        public long getLong(String path, long def) {
+            int row = find(base, path);
+            return row >= 0 && isNumber(row) ? asLong(row) : def;
+        }
+
+        @Override
+        public double getDouble(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults == null ? 0 : defaults.getDouble(path);
+            return isNumber(row) ? asDouble(row) : 0;
+        }
+
+        @Override
+        public double getDouble(String path, double def) {
+            int row = find(base, path);
+            return row >= 0 && isNumber(row) ? asDouble(row) : def;
+        }
+
+        @Override
+        public boolean getBoolean(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults != null && defaults.getBoolean(path);
+            return types[row] == BOOLEAN && values[row] != 0;
+        }
+
+        @Override
+        public boolean getBoolean(String path, boolean def) {
+            int row = find(base, path);
+            return row >= 0 && types[row] == BOOLEAN ? values[row] != 0 : def;
+        }
+
+        @Override
+        public List<?> getList(String path) {
+            int row = find(base, path);
+            if (row < 0) return defaults == null ? null : defaults.getList(path);
+            return types[row] == OBJECT && refs[(int) values[row]] instanceof List<?> l ? l : null;
+        }
+
+        @Override
+        public List<String> getStringList(String path) {
+            List<?> list = getList(path);
+            if (list == null) return List.of();
+            List<String> out = new ArrayList<>(list.size());
+            for (Object o : list) {
+                if (o instanceof String || o instanceof Number || o instanceof Boolean || o instanceof Character) {
+                    out.add(String.valueOf(o));
+                }
+            }
+            return Collections.unmodifiableList(out);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Maps config sections onto records through their canonical constructor.
+ * Each record type is inspected once; components are looked up by name or kebab-case name
+ * ({@code maxPlayers} or {@code max-players}) and every type mismatch is reported together.
+ */
+final class ConfigBinder {
+    private static final ClassValue<RecordShape> SHAPES = new ClassValue<>() {
+        @Override
+        protected RecordShape computeValue(Class<?> type) {
+            return RecordShape.of(type);
+        }
+    };
+
+    private ConfigBinder() {}
+
+    static <T extends Record> T bind(ConfigurationSection section, Class<T> type, String where) {
+        List<String> errors = new ArrayList<>();
+        Object v = bindRecord(section, type, where, errors);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Cannot bind " + type.getSimpleName() + ":\n  " + String.join("\n  ", errors));
+        }
+        return type.cast(v);
+    }
+
+    private static Object bindRecord(ConfigurationSection section, Class<?> type, String where, List<String> errors) {
+        RecordShape shape = SHAPES.get(type);
+        Object[] args = new Object[shape.names.length];
+        for (int i = 0; i < args.length; i++) {
+            String key = section.contains(shape.names[i]) ? shape.names[i] : shape.kebab[i];
+            String path = where.isEmpty() ? key : where + "." + key;
+            args[i] = convert(section.get(key), shape.types[i], path, errors);
+        }
+        if (errors.isEmpty()) {
+            try {
+                return shape.ctor.invokeWithArguments(args);
+            } catch (Throwable t) {
+                errors.add(where + ": constructor of " + type.getSimpleName() + " failed: " + t);
+            }
+        }
+        return null;
+    }
+
+    private static Object convert(Object raw, Type target, String path, List<String> errors) {
+        Class<?> cls = rawClass(target);
+        if (raw instanceof Map<?,?> m) {
+            // sections inside lists come back as plain maps
+            raw = new MemoryConfiguration().createSection("_", m);
+        }
+        if (raw == null) {
+            if (cls == List.class) return List.of();
+            if (cls == Map.class) return Map.of();
+            errors.add(path + ": missing (" + cls.getSimpleName() + ")");
+            return null;
+        }
+        if (cls == String.class) return String.valueOf(raw);
+        if (cls == int.class || cls == Integer.class) return integral(raw, Integer.MIN_VALUE, Integer.MAX_VALUE, path, errors, true);
+        if (cls == long.class || cls == Long.class) return integral(raw, Long.MIN_VALUE, Long.MAX_VALUE, path, errors, false);
+        if (cls == double.class || cls == Double.class) {
+            if (raw instanceof Number n) return n.doubleValue();
+            return mismatch(path, "number", raw, errors);
+        }
+        if (cls == float.class || cls == Float.class) {
+            if (raw instanceof Number n) return n.floatValue();
+            return mismatch(path, "number", raw, errors);
+        }
+        if (cls == boolean.class || cls == Boolean.class) {
+            if (raw instanceof Boolean b) return b;
+            return mismatch(path, "true/false", raw, errors);
+        }
+        if (cls.isEnum()) {
+            for (Object c : cls.getEnumConstants()) {
+                if (((Enum<?>) c).name().equalsIgnoreCase(String.valueOf(raw))) return c;
+            }
+            return mismatch(path, "one of " + Arrays.toString(cls.getEnumConstants()), raw, errors);
+        }
+        if (cls.isRecord()) {
+            if (raw instanceof ConfigurationSection sec) return bindRecord(sec, cls, path, errors);
+            return mismatch(path, "section", raw, errors);
+        }
+        if (cls == List.class) {
+            if (!(raw instanceof List<?> list)) return mismatch(path, "list", raw, errors);
+            Type elem = typeArg(target, 0);
+            List<Object> out = new ArrayList<>(list.size());
+            for (int i = 0; i < list.size(); i++) {
+                out.add(convert(list.get(i), elem, path + "[" + i + "]", errors));
+            }
+            return errors.isEmpty() ? List.copyOf(out) : null;
+        }
+        if (cls == Map.class) {
+            if (!(raw instanceof ConfigurationSection sec)) return mismatch(path, "section", raw, errors);
+            Type val = typeArg(target, 1);
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (String k : sec.getKeys(false)) {
+                out.put(k, convert(sec.get(k), val, path + "." + k, errors));
+            }
+            return errors.isEmpty() ? Collections.unmodifiableMap(out) : null;
+        }
+        errors.add(path + ": unsupported component type " + target.getTypeName());
+        return null;
+    }
+
+    private static Object integral(Object raw, long min, long max, String path, List<String> errors, boolean asInt) {
+        if (raw instanceof Number n && (raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte)) {
+            long l = n.longValue();
+            if (l >= min && l <= max) return asInt ? (Object) (int) l : (Object) l;
+            return mismatch(path, asInt ? "int in range" : "long", raw, errors);
+        }
+        return mismatch(path, asInt ? "whole number" : "whole number (long)", raw, errors);
+    }
+
+    private static Object mismatch(String path, String expected, Object raw, List<String> errors) {
+        errors.add(path + ": expected " + expected + " but found '" + raw + "'");
+        return null;
+    }
+
+    private static Class<?> rawClass(Type t) {
+        if (t instanceof Class<?> c) return c;
+        if (t instanceof ParameterizedType p) return (Class<?>) p.getRawType();
+        return Object.class;
+    }
+
+    private static Type typeArg(Type t, int idx) {
+        if (t instanceof ParameterizedType p && p.getActualTypeArguments().length > idx) {
+            return p.getActualTypeArguments()[idx];
+        }
+        return String.class;
+    }
+
+    private record RecordShape(String[] names, String[] kebab, Type[] types, MethodHandle ctor) {
+        static RecordShape of(Class<?> type) {
+            if (!type.isRecord()) throw new IllegalArgumentException(type.getName() + " is not a record");
+            RecordComponent[] comps = type.getRecordComponents();
+            String[] names = new String[comps.length];
+            String[] kebab = new String[comps.length];
+            Type[] types = new Type[comps.length];
+            Class<?>[] raw = new Class<?>[comps.length];
+            for (int i = 0; i < comps.length; i++) {
+                names[i] = comps[i].getName();
+                kebab[i] = names[i].replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+                types[i] = comps[i].getGenericType();
+                raw[i] = comps[i].getType();
+            }
+            try {
+                Constructor<?> c = type.getDeclaredConstructor(raw);
+                c.setAccessible(true);
+                return new RecordShape(names, kebab, types, MethodHandles.lookup().unreflectConstructor(c));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot access canonical constructor of " + type.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind saving: a save only marks the file dirty. Once per window the content is serialized
+ * (on the executor given with the save, usually the server thread, since configs are mutated there)
+ * and written off-thread via temp file + atomic rename, so repeated saves cost one serialization.
+ */
+final class ConfigWriter implements AutoCloseable {
+    private final Logger log;
+    private final long windowMs;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Path, Pending> pending = new ConcurrentHashMap<>();
+
+    private record Pending(Supplier<String> content, Executor serializeOn, Consumer<FileTime> onWritten,
+                           CompletableFuture<Void> done) {}
+
+    ConfigWriter(Logger log, long windowMs) {
+        this.log = log;
+        this.windowMs = windowMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "CloudConfig-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Schedules already serialized content; the returned future completes once it is on disk. */
+    CompletableFuture<Void> schedule(Path target, String yaml, Consumer<FileTime> onWritten) {
+        return schedule(target, () -> yaml, Runnable::run, onWritten);
+    }
+
+    /**
+     * Marks {@code target} dirty. When the window ends, {@code content} is called once on {@code serializeOn}
+     * (later saves within the window replace it) and the result is written; the future completes once it is on disk.
+     */
+    CompletableFuture<Void> schedule(Path target, Supplier<String> content, Executor serializeOn, Consumer<FileTime> onWritten) {
+        Pending p = pending.compute(target, (k, cur) -> {
+            if (cur != null) return new Pending(content, serializeOn, onWritten, cur.done);
+            scheduler.schedule(() -> serializeLater(k), windowMs, TimeUnit.MILLISECONDS);
+            return new Pending(content, serializeOn, onWritten, new CompletableFuture<>());
+        });
+        return p.done;
+    }
+
+    /** Writes everything that is pending right now, serializing on the calling thread. */
+    CompletableFuture<Void> flush() {
+        return flush(null);
+    }
+
+    /** Writes what is pending below {@code dir} right now (everything if null), serializing on the calling thread. */
+    CompletableFuture<Void> flush(Path dir) {
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (var e : pending.entrySet()) {
+            if (dir != null && !e.getKey().startsWith(dir)) continue;
+            all.add(e.getValue().done);
+            serialize(e.getKey());
+        }
+        return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new));
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("[CloudConfig] Failed to flush pending config writes", e);
+        }
+        scheduler.shutdown();
+    }
+
+    private void serializeLater(Path target) {
+        Pending p = pending.get(target);
+        if (p == null) return; // flushed meanwhile
+        try {
+            p.serializeOn.execute(() -> serialize(target));
+        } catch (RuntimeException e) {
+            serialize(target); // e.g. the server is shutting down and takes no more tasks
+        }
+    }
+
+    /** Takes the pending content (still pending until here, so close() finds it) and hands the write to the writer thread. */
+    private void serialize(Path target) {
+        Pending p = pending.remove(target);
+        if (p == null) return; // already taken by a flush or an earlier task
+        String yaml;
+        try {
+            yaml = p.content.get();
+        } catch (RuntimeException e) {
+            log.error("[CloudConfig] Failed to serialize {}", target, e);
+            p.done.completeExceptionally(e);
+            return;
+        }
+        try {
+            scheduler.execute(() -> write(target, yaml, p));
+        } catch (RejectedExecutionException e) {
+            write(target, yaml, p); // closed
+        }
+    }
+
+    private void write(Path target, String yaml, Pending p) {
+        try {
+            p.onWritten.accept(writeAtomically(target, yaml));
+            p.done.complete(null);
+        } catch (IOException e) {
+            log.error("[CloudConfig] Failed to save {}", target, e);
+            p.done.completeExceptionally(e);
+        }
+    }
+
+    /** Replaces {@code target} with {@code content}; returns the new mtime. */
+    static FileTime writeAtomically(Path target, String content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return Files.getLastModifiedTime(target);
+    }
+}
@@ -0,0 +1,25 @@
+package de.aboutcloud.cloudConfig.core;
+
+/** JMX view of one plugin's pool, registered as {@code de.aboutcloud.cloudConfig:type=DatabasePool,plugin=<name>}. */
+public interface DatabasePoolMXBean {
+    boolean isShared();
+    int getActiveConnections();
+    int getIdleConnections();
+    int getPendingThreads();
+    int getMaxConnections();
+    long getAcquireCount();
+    long getAcquireTimeouts();
+    double getAcquireMeanMillis();
+    double getAcquireP95Millis();
+    double getAcquireMaxMillis();
+    double getUsageP95Millis();
+    long getTransactionCount();
+    long getRollbackCount();
+    long getSlowTransactionCount();
+    double getTransactionP95Millis();
+    double getTransactionMaxMillis();
+    long getRetryCount();
+    boolean isCircuitOpen();
+    long getCircuitOpenCount();
+    long getRejectedCount();
+}
@@ -0,0 +1,145 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches plugins' config/ and locale/ directories on one daemon thread.
+ * Events are collected per plugin until the plugin's files have been quiet for the debounce window,
+ * then the changed .yml paths are handed to {@code onChange} on {@code exec}. At most one apply per
+ * plugin is in flight; batches that become quiet meanwhile are merged and applied after it, so an
+ * older read can never overwrite a newer one.
+ */
+final class FileWatcher implements AutoCloseable {
+    private final Logger log;
+    private final long debounceNanos;
+    private final Executor exec;
+    private final BiConsumer<String, Set<Path>> onChange;
+    private final WatchService ws;
+    private final Thread thread;
+
+    private final Map<WatchKey, String> owners = new ConcurrentHashMap<>();
+    // watcher thread only
+    private final Map<String, Set<Path>> pending = new HashMap<>();
+    private final Map<String, Long> lastEvent = new HashMap<>();
+    // guarded by itself: plugins with an apply in flight -> paths queued behind it
+    private final Map<String, Set<Path>> applying = new HashMap<>();
+
+    FileWatcher(Logger log, long debounceMs, Executor exec, BiConsumer<String, Set<Path>> onChange) throws IOException {
+        this.log = log;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
+        this.exec = exec;
+        this.onChange = onChange;
+        this.ws = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::loop, "CloudConfig-FileWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void watch(String plugin, Path... dirs) throws IOException {
+        unwatch(plugin);
+        for (Path dir : dirs) {
+            Files.createDirectories(dir);
+            owners.put(dir.register(ws, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), plugin);
+        }
+    }
+
+    void unwatch(String plugin) {
+        owners.entrySet().removeIf(e -> {
+            if (!e.getValue().equals(plugin)) return false;
+            e.getKey().cancel();
+            return true;
+        });
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+        try { ws.close(); } catch (IOException ignored) {}
+    }
+
+    private void loop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = pending.isEmpty() ? ws.take() : ws.poll(nextDeadline(), TimeUnit.NANOSECONDS);
+                if (key != null) collect(key);
+                flushQuiet();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // shutting down
+        }
+    }
+
+    private void collect(WatchKey key) {
+        String plugin = owners.get(key);
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (plugin == null) continue;
+            if (ev.kind() == OVERFLOW) {
+                log.warn("[CloudConfig] Watch events overflowed for {}, some changes may need /cloudconfig reload", plugin);
+                continue;
+            }
+            Path changed = dir.resolve((Path) ev.context());
+            if (!changed.getFileName().toString().endsWith(".yml")) continue;
+            pending.computeIfAbsent(plugin, k -> new HashSet<>()).add(changed);
+            lastEvent.put(plugin, System.nanoTime());
+        }
+        if (!key.reset()) owners.remove(key);
+    }
+
+    private long nextDeadline() {
+        long now = System.nanoTime();
+        long wait = debounceNanos;
+        for (long t : lastEvent.values()) wait = Math.min(wait, t + debounceNanos - now);
+        return Math.max(wait, 1);
+    }
+
+    private void flushQuiet() {
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<String, Long>> it = lastEvent.entrySet().iterator(); it.hasNext(); ) {
+            var e = it.next();
+            if (now - e.getValue() < debounceNanos) continue;
+            it.remove();
+            String plugin = e.getKey();
+            Set<Path> batch = pending.remove(plugin);
+            if (batch == null) continue;
+            synchronized (applying) {
+                Set<Path> queued = applying.get(plugin);
+                if (queued != null) {
+                    queued.addAll(batch);
+                    continue;
+                }
+                applying.put(plugin, new HashSet<>());
+            }
+            exec.execute(() -> apply(plugin, batch));
+        }
+    }
+
+    private void apply(String plugin, Set<Path> batch) {
+        while (true) {
+            try {
+                onChange.accept(plugin, batch);
+            } catch (Exception ex) {
+                log.error("[CloudConfig] Failed applying file changes for {}", plugin, ex);
+            }
+            synchronized (applying) {
+                Set<Path> queued = applying.get(plugin);
+                if (queued.isEmpty()) {
+                    applying.remove(plugin);
+                    return;
+                }
+                batch = queued;
+                applying.put(plugin, new HashSet<>());
+            }
+        }
+    }
+}
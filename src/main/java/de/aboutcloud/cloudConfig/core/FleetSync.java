@@ -0,0 +1,314 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Distributes plugins' config/ and locale/ files through their database. Published files are
+ * appended to {@code cloudconfig_documents}; every node polls for rows newer than the last version
+ * it applied, writes only files whose hash differs and hands them to {@code onChange} like the
+ * file watcher does. Local files stay the cache: if the database is down the node keeps them.
+ * <p>
+ * AUTO_INCREMENT values are assigned at insert, not at commit, so a concurrent publish can become
+ * visible below a version this node already applied. Polls therefore re-read the last
+ * {@value #WINDOW} versions and apply the ones not seen yet; only metadata is re-read, content is
+ * fetched for files whose hash differs.
+ */
+final class FleetSync implements AutoCloseable {
+    static final String TABLE = "cloudconfig_documents";
+    // node-specific (credentials, pool sizes), never distributed
+    private static final String EXCLUDED = "config/database.yml";
+    private static final Pattern DOC_PATH = Pattern.compile("(config|locale)/[^/\\\\]+\\.yml");
+    private static final String VERSION_FILE = ".fleet-version";
+    // versions below the applied one that are re-read in case an older publish committed late
+    static final int WINDOW = 256;
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+            + "version BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+            + "plugin VARCHAR(64) NOT NULL, "
+            + "path VARCHAR(255) NOT NULL, "
+            + "sha CHAR(64) NOT NULL, "
+            + "content MEDIUMTEXT NULL, "
+            + "published_by VARCHAR(64) NULL, "
+            + "published_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+            + "KEY idx_plugin_version (plugin, version))";
+    // newest revision per path since the given version; an empty range is a single index probe
+    private static final String LATEST = "SELECT d.version, d.path, d.sha FROM " + TABLE + " d "
+            + "JOIN (SELECT path, MAX(version) AS v FROM " + TABLE + " WHERE plugin = ? AND version > ? GROUP BY path) m "
+            + "ON d.version = m.v ORDER BY d.version";
+    private static final String CONTENT = "SELECT content FROM " + TABLE + " WHERE version = ?";
+    private static final String INSERT = "INSERT INTO " + TABLE + " (plugin, path, sha, content, published_by) VALUES (?, ?, ?, ?, ?)";
+
+    private record Doc(long version, String path, String sha) {}
+
+    private static final class Node {
+        final JavaPlugin plugin;
+        final long intervalMs;
+        final AtomicBoolean polling = new AtomicBoolean();
+        // versions inside the window that were already applied; only touched by the running poll
+        final Set<Long> seen = ConcurrentHashMap.newKeySet();
+        volatile long version;
+        volatile boolean failing;
+        volatile ScheduledFuture<?> task;
+        volatile boolean stopped;
+
+        Node(JavaPlugin plugin, long intervalMs) {
+            this.plugin = plugin;
+            this.intervalMs = intervalMs;
+        }
+    }
+
+    private final Logger log;
+    private final CloudDatabaseService db;
+    private final Executor worker;
+    private final BiConsumer<String, Set<Path>> onChange;
+    private final String nodeName;
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "CloudConfig-Fleet");
+        t.setDaemon(true);
+        return t;
+    });
+
+    FleetSync(Logger log, CloudDatabaseService db, Executor worker, String nodeName, BiConsumer<String, Set<Path>> onChange) {
+        this.log = log;
+        this.db = db;
+        this.worker = worker;
+        this.nodeName = nodeName;
+        this.onChange = onChange;
+    }
+
+    /** Starts polling once the plugin's pool is ready; the first poll runs right away. */
+    void start(JavaPlugin plugin, long intervalMs) {
+        Node n = new Node(plugin, Math.max(250, intervalMs));
+        n.version = readVersion(plugin);
+        Node prev = nodes.put(plugin.getName(), n);
+        if (prev != null) stop(prev);
+        db.ready(plugin).thenRunAsync(() -> {
+            try {
+                db.withConnection(plugin, c -> {
+                    try (Statement st = c.createStatement()) {
+                        st.execute(CREATE);
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                log.warn("[CloudConfig] Cannot create {} for {}: {}", TABLE, plugin.getName(), e.getMessage());
+            }
+            poll(n);
+            if (n.stopped) return;
+            // random phase so a fleet restarted together does not poll in lockstep
+            long phase = ThreadLocalRandom.current().nextLong(n.intervalMs);
+            n.task = timer.scheduleWithFixedDelay(() -> {
+                if (n.polling.compareAndSet(false, true)) worker.execute(() -> poll(n));
+            }, phase, n.intervalMs, TimeUnit.MILLISECONDS);
+        }, worker).exceptionally(ex -> {
+            log.warn("[CloudConfig] Fleet sync of {} not started: {}", plugin.getName(), ex.getMessage());
+            return null;
+        });
+    }
+
+    void stop(String plugin) {
+        Node n = nodes.remove(plugin);
+        if (n != null) stop(n);
+    }
+
+    boolean isSyncing(String plugin) {
+        return nodes.containsKey(plugin);
+    }
+
+    /** Last version applied on this node, 0 if none. */
+    long version(String plugin) {
+        Node n = nodes.get(plugin);
+        return n == null ? 0 : n.version;
+    }
+
+    /**
+     * Appends every local file whose content differs from the newest published revision, plus a
+     * tombstone for published files that no longer exist locally. Returns the number of rows written.
+     */
+    int publish(JavaPlugin plugin) throws SQLException, IOException {
+        Path data = plugin.getDataFolder().toPath();
+        Map<String, byte[]> local = new TreeMap<>();
+        for (String dir : List.of("config", "locale")) {
+            Path d = data.resolve(dir);
+            if (!Files.isDirectory(d)) continue;
+            try (var files = Files.list(d)) {
+                for (Path p : files.toList()) {
+                    String rel = dir + "/" + p.getFileName();
+                    if (DOC_PATH.matcher(rel).matches() && !rel.equals(EXCLUDED)) local.put(rel, Files.readAllBytes(p));
+                }
+            }
+        }
+        int[] written = {0};
+        db.withConnection(plugin, c -> {
+            try (Statement st = c.createStatement()) {
+                st.execute(CREATE);
+            }
+            return null;
+        });
+        db.withTransaction(plugin, c -> {
+            Map<String, String> published = new HashMap<>();
+            for (Doc d : fetch(c, plugin.getName(), 0)) published.put(d.path, d.sha);
+            try (PreparedStatement ps = c.prepareStatement(INSERT)) {
+                for (var e : local.entrySet()) {
+                    String sha = sha(e.getValue());
+                    if (sha.equals(published.get(e.getKey()))) continue;
+                    add(ps, plugin.getName(), e.getKey(), sha, new String(e.getValue(), StandardCharsets.UTF_8));
+                    written[0]++;
+                }
+                for (var e : published.entrySet()) {
+                    if (local.containsKey(e.getKey()) || e.getValue().isEmpty()) continue;
+                    add(ps, plugin.getName(), e.getKey(), "", null); // tombstone
+                    written[0]++;
+                }
+                if (written[0] > 0) ps.executeBatch();
+            }
+        });
+        return written[0];
+    }
+
+    @Override
+    public void close() {
+        for (Node n : nodes.values()) stop(n);
+        nodes.clear();
+        timer.shutdownNow();
+    }
+
+    private void stop(Node n) {
+        n.stopped = true;
+        ScheduledFuture<?> t = n.task;
+        if (t != null) t.cancel(false);
+    }
+
+    private void add(PreparedStatement ps, String plugin, String path, String sha, String content) throws SQLException {
+        ps.setString(1, plugin);
+        ps.setString(2, path);
+        ps.setString(3, sha);
+        ps.setString(4, content);
+        ps.setString(5, nodeName);
+        ps.addBatch();
+    }
+
+    private void poll(Node n) {
+        try {
+            if (n.stopped) return;
+            String name = n.plugin.getName();
+            List<Doc> docs = db.withConnection(n.plugin, c -> fetch(c, name, Math.max(0, n.version - WINDOW)));
+            if (n.failing) {
+                n.failing = false;
+                log.info("[CloudConfig] Fleet sync of {} reconnected", name);
+            }
+
+            Path data = n.plugin.getDataFolder().toPath();
+            Set<Path> changed = new HashSet<>();
+            long top = n.version;
+            for (Doc d : docs) {
+                top = Math.max(top, d.version);
+                if (n.seen.contains(d.version)) continue;
+                if (!DOC_PATH.matcher(d.path).matches() || d.path.equals(EXCLUDED)) {
+                    log.warn("[CloudConfig] Ignoring fleet document {} of {}", d.path, name);
+                    n.seen.add(d.version);
+                    continue;
+                }
+                Path target = data.resolve(d.path);
+                if (d.sha.isEmpty()) {
+                    if (Files.deleteIfExists(target)) changed.add(target);
+                } else if (!d.sha.equals(localSha(target))) {
+                    String content = db.withConnection(n.plugin, c -> content(c, d.version));
+                    if (content != null) {
+                        ConfigWriter.writeAtomically(target, content);
+                        changed.add(target);
+                    }
+                }
+                n.seen.add(d.version); // not reached on failure, so the next poll retries it
+            }
+            long floor = top - WINDOW;
+            n.seen.removeIf(v -> v <= floor);
+            if (!changed.isEmpty()) {
+                onChange.accept(name, changed);
+                log.info("[CloudConfig] Fleet sync applied {} file(s) of {} (version {})", changed.size(), name, top);
+            }
+            if (top == n.version) return;
+            n.version = top;
+            writeVersion(n.plugin, top);
+        } catch (SQLException | RuntimeException e) {
+            if (!n.failing) {
+                n.failing = true;
+                log.warn("[CloudConfig] Fleet sync of {} failed, keeping local files: {}", n.plugin.getName(), e.getMessage());
+            }
+        } catch (IOException e) {
+            log.error("[CloudConfig] Fleet sync of {} could not write files", n.plugin.getName(), e);
+        } finally {
+            n.polling.set(false);
+        }
+    }
+
+    private static List<Doc> fetch(Connection c, String plugin, long since) throws SQLException {
+        List<Doc> out = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(LATEST)) {
+            ps.setString(1, plugin);
+            ps.setLong(2, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(new Doc(rs.getLong(1), rs.getString(2), rs.getString(3)));
+            }
+        }
+        return out;
+    }
+
+    private static String content(Connection c, long version) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(CONTENT)) {
+            ps.setLong(1, version);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static String localSha(Path p) throws IOException {
+        try {
+            return sha(Files.readAllBytes(p));
+        } catch (NoSuchFileException e) {
+            return "";
+        }
+    }
+
+    private static String sha(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long readVersion(JavaPlugin plugin) {
+        try {
+            return Long.parseLong(Files.readString(plugin.getDataFolder().toPath().resolve(VERSION_FILE)).strip());
+        } catch (IOException | NumberFormatException e) {
+            return 0; // first sync: compare every file by hash
+        }
+    }
+
+    private void writeVersion(JavaPlugin plugin, long version) {
+        try {
+            ConfigWriter.writeAtomically(plugin.getDataFolder().toPath().resolve(VERSION_FILE), Long.toString(version));
+        } catch (IOException e) {
+            log.warn("[CloudConfig] Cannot store fleet version of {}: {}", plugin.getName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.aboutcloud.cloudConfig.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Lock-free latency histogram with fixed millisecond buckets; percentiles report the bucket's upper bound. */
+final class LatencyHistogram {
+    // upper bounds in microseconds; the last bucket is open-ended
+    private static final long[] BOUNDS_US = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 5_000_000, Long.MAX_VALUE
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_US.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    void record(long nanos) {
+        long us = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int i = 0;
+        while (us > BOUNDS_US[i]) i++;
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    long count() { return count.sum(); }
+
+    double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    double maxMillis() { return maxNanos.get() / 1e6; }
+
+    /** Upper bound of the bucket containing the p-th percentile (0..1), in ms. */
+    double percentileMillis(double p) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(n * p);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= target) {
+                return BOUNDS_US[i] == Long.MAX_VALUE ? maxMillis() : BOUNDS_US[i] / 1e3;
+            }
+        }
+        return maxMillis();
+    }
+}
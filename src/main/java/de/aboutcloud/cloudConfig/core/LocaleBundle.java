@@ -6,36 +6,48 @@ import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
 
+/** One locale file, flattened to dotted key -> message at load time. */
 final class LocaleBundle {
-    private final Map<String, Object> tree;
+    private final Map<String, String> entries;
 
-    private LocaleBundle(Map<String, Object> tree) { this.tree = tree; }
+    private LocaleBundle(Map<String, String> entries) { this.entries = entries; }
 
     static LocaleBundle load(Path path) throws IOException {
         try (Reader r = Files.newBufferedReader(path)) {
-            Yaml yaml = new Yaml();
-            Object o = yaml.load(r);
-            Map<String, Object> map = (o instanceof Map<?,?> m) ? (Map<String, Object>) m : Map.of();
-            return new LocaleBundle(map);
+            return parse(r);
         }
     }
 
+    static LocaleBundle parse(Reader r) {
+        Yaml yaml = new Yaml();
+        Object o = yaml.load(r);
+        Map<String, String> flat = new HashMap<>();
+        if (o instanceof Map<?,?> m) flatten("", m, flat);
+        return new LocaleBundle(Map.copyOf(flat));
+    }
+
+    static LocaleBundle of(Map<String, String> entries) {
+        return new LocaleBundle(Map.copyOf(entries));
+    }
+
     String get(String key) {
-        Object v = dig(tree, key);
-        return (v == null) ? null : String.valueOf(v);
+        return entries.get(key);
     }
 
-    @SuppressWarnings("unchecked")
-    private static Object dig(Map<String, Object> map, String dotted) {
-        String[] parts = dotted.split("\\.");
-        Object cur = map;
-        for (String part : parts) {
-            if (!(cur instanceof Map<?,?> m)) return null;
-            cur = m.get(part);
-            if (cur == null) return null;
+    Map<String, String> entries() { return entries; }
+
+    private static void flatten(String prefix, Map<?,?> map, Map<String, String> out) {
+        for (var e : map.entrySet()) {
+            String key = prefix + e.getKey();
+            Object v = e.getValue();
+            if (v instanceof Map<?,?> child) {
+                flatten(key + ".", child, out);
+            } else if (v != null) {
+                out.put(key, String.valueOf(v));
+            }
         }
-        return cur;
     }
 }
@@ -0,0 +1,77 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.util.LocaleUtil;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of loaded bundles plus lazily built, fallback-merged views.
+ * A view holds every key visible to one requested locale, so lookups are a single probe.
+ */
+final class LocaleIndex {
+    private final Map<Locale, LocaleBundle> bundles;
+    private final Locale defaultLocale;
+    private final Map<Locale, Set<String>> missing;
+    private final Set<Locale> available;
+    private final Map<Locale, LocaleView> byRequested = new ConcurrentHashMap<>();
+    // Requested locales that fall back to the same bundles share one view
+    private final Map<List<Locale>, LocaleView> byChain = new ConcurrentHashMap<>();
+
+    LocaleIndex(Map<Locale, LocaleBundle> bundles, Locale defaultLocale) {
+        this.bundles = Map.copyOf(bundles);
+        this.defaultLocale = defaultLocale;
+        this.missing = computeMissing(this.bundles, defaultLocale);
+        Set<Locale> avail = new TreeSet<>(Comparator.comparing(Locale::toLanguageTag));
+        avail.addAll(this.bundles.keySet());
+        avail.add(defaultLocale);
+        this.available = Collections.unmodifiableSet(avail);
+    }
+
+    Locale defaultLocale() { return defaultLocale; }
+
+    Map<Locale, LocaleBundle> bundles() { return bundles; }
+
+    /** Loaded locales plus the default locale, sorted by tag. */
+    Set<Locale> available() { return available; }
+
+    /** Keys of the default bundle that each other bundle lacks (they resolve via fallback). */
+    Map<Locale, Set<String>> missingKeys() { return missing; }
+
+    LocaleView view(Locale requested) {
+        Locale loc = requested != null ? requested : defaultLocale;
+        LocaleView v = byRequested.get(loc);
+        if (v == null) v = byRequested.computeIfAbsent(loc, this::buildView);
+        return v;
+    }
+
+    private LocaleView buildView(Locale requested) {
+        List<Locale> present = new ArrayList<>();
+        for (Locale c : LocaleUtil.fallbackChain(requested, defaultLocale)) {
+            if (bundles.containsKey(c) && !present.contains(c)) present.add(c);
+        }
+        return byChain.computeIfAbsent(List.copyOf(present), chain -> {
+            Map<String, String> merged = new HashMap<>();
+            // lowest priority first so earlier chain entries win
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                merged.putAll(bundles.get(chain.get(i)).entries());
+            }
+            return new LocaleView(requested, merged);
+        });
+    }
+
+    private static Map<Locale, Set<String>> computeMissing(Map<Locale, LocaleBundle> bundles, Locale def) {
+        LocaleBundle base = bundles.get(def);
+        if (base == null) return Map.of();
+        Map<Locale, Set<String>> out = new HashMap<>();
+        bundles.forEach((loc, b) -> {
+            if (loc.equals(def)) return;
+            Set<String> gaps = new TreeSet<>();
+            for (String k : base.entries().keySet()) {
+                if (b.get(k) == null) gaps.add(k);
+            }
+            if (!gaps.isEmpty()) out.put(loc, Collections.unmodifiableSet(gaps));
+        });
+        return Map.copyOf(out);
+    }
+}
@@ -0,0 +1,37 @@
+package de.aboutcloud.cloudConfig.core;
+
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Effective messages for one fallback chain, plus the templates compiled from them. Only keys that
+ * exist are cached, so the cache never outgrows {@code messages}.
+ */
+final class LocaleView {
+    final Locale locale;
+    final Map<String, String> messages;
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+    LocaleView(Locale locale, Map<String, String> messages) {
+        this.locale = locale;
+        this.messages = Map.copyOf(messages);
+    }
+
+    String get(String key) {
+        return messages.get(key);
+    }
+
+    MessageTemplate template(String key, MiniMessage mm) {
+        MessageTemplate t = templates.get(key);
+        if (t != null) return t;
+        String raw = messages.get(key);
+        if (raw == null) {
+            // not cached: arbitrary missing keys would grow the map without bound
+            return MessageTemplate.compile("<gray>Missing message: <red>" + key + "</red></gray>", mm);
+        }
+        return templates.computeIfAbsent(key, k -> MessageTemplate.compile(raw, mm));
+    }
+}
@@ -0,0 +1,118 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.Placeholders;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A raw message split once into literal parts and {name} slots.
+ * Messages without slots are deserialized a single time and shared.
+ * <p>
+ * A slot name is one or more letters, digits, {@code _}, {@code -} or {@code .} between braces,
+ * e.g. {@code {player}}, {@code {world-name}} or {@code {stats.kills}}. Any other brace (empty,
+ * unclosed, or containing spaces or other characters) is literal text.
+ */
+final class MessageTemplate {
+    private static final String[] NO_SLOTS = new String[0];
+    // same grammar as slotEnd
+    private static final Pattern SLOT = Pattern.compile("\\{([\\p{L}\\p{Nd}_.-]+)}");
+
+    private final String raw;
+    private final String[] literals; // literals.length == slots.length + 1
+    private final String[] slots;
+    private final int literalLength;
+    private final Component fixed;
+    private final boolean slotInTag; // e.g. <click:run_command:/tp {player}>
+    private volatile Component parsed; // raw with its slots still as {name} text, for renderSlots
+
+    private MessageTemplate(String raw, String[] literals, String[] slots, Component fixed, boolean slotInTag) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+        this.fixed = fixed;
+        this.slotInTag = slotInTag;
+    }
+
+    static MessageTemplate compile(String raw, MiniMessage mm) {
+        List<String> lits = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        boolean inTag = false;
+        int from = 0;
+        int open = raw.indexOf('{');
+        while (open >= 0) {
+            int close = slotEnd(raw, open);
+            if (close < 0) {
+                open = raw.indexOf('{', open + 1);
+                continue;
+            }
+            lits.add(raw.substring(from, open));
+            names.add(raw.substring(open + 1, close));
+            inTag |= raw.lastIndexOf('<', open) > raw.lastIndexOf('>', open);
+            from = close + 1;
+            open = raw.indexOf('{', from);
+        }
+        if (names.isEmpty()) {
+            return new MessageTemplate(raw, new String[]{raw}, NO_SLOTS, mm.deserialize(raw), false);
+        }
+        lits.add(raw.substring(from));
+        return new MessageTemplate(raw, lits.toArray(String[]::new), names.toArray(String[]::new), null, inTag);
+    }
+
+    boolean isStatic() { return fixed != null; }
+
+    Component render(Placeholders placeholders, MiniMessage mm) {
+        if (fixed != null) return fixed;
+        return mm.deserialize(fill(placeholders));
+    }
+
+    /**
+     * Same result as {@link #render}, but the message is parsed once and only the slots are resolved per
+     * call, by replacing their {name} text in the shared Component; for rendering one message to many
+     * viewers with different values. Values with tags are parsed on their own. Slots inside a tag
+     * (e.g. a click command) are not text in the parsed tree, so such messages fall back to render.
+     */
+    Component renderSlots(Placeholders placeholders, MiniMessage mm) {
+        if (fixed != null) return fixed;
+        if (slotInTag) return render(placeholders, mm);
+        Component c = parsed;
+        if (c == null) parsed = c = mm.deserialize(raw);
+        if (placeholders == null) return c;
+        return c.replaceText(TextReplacementConfig.builder()
+                .match(SLOT)
+                .replacement((m, text) -> {
+                    String v = placeholders.resolve(m.group(1));
+                    if (v == null) return text; // kept verbatim
+                    return v.indexOf('<') >= 0 ? mm.deserialize(v) : Component.text(v);
+                })
+                .build());
+    }
+
+    /** Single pass over the pre-split parts; unresolved slots are kept verbatim. */
+    String fill(Placeholders placeholders) {
+        StringBuilder sb = new StringBuilder(literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            String v = placeholders == null ? null : placeholders.resolve(slots[i]);
+            if (v != null) sb.append(v);
+            else sb.append('{').append(slots[i]).append('}');
+        }
+        return sb.append(literals[slots.length]).toString();
+    }
+
+    private static int slotEnd(String raw, int open) {
+        for (int i = open + 1; i < raw.length(); i++) {
+            char ch = raw.charAt(i);
+            if (ch == '}') return i > open + 1 ? i : -1;
+            if (!(Character.isLetterOrDigit(ch) || ch == '_' || ch == '-' || ch == '.')) return -1;
+        }
+        return -1;
+    }
+}
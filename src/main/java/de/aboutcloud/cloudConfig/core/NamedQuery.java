@@ -0,0 +1,29 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.QueryStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** One config/db/queries/<name>.sql file with variables already substituted. */
+final class NamedQuery {
+    final String name;
+    final String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    NamedQuery(String name, String sql) {
+        this.name = name;
+        this.sql = sql;
+    }
+
+    void record(long nanos, boolean failed) {
+        latency.record(nanos);
+        if (failed) errors.increment();
+    }
+
+    QueryStats stats() {
+        return new QueryStats(name, latency.count(), errors.sum(), latency.meanMillis(),
+                latency.percentileMillis(0.50), latency.percentileMillis(0.95), latency.percentileMillis(0.99),
+                latency.maxMillis());
+    }
+}
@@ -0,0 +1,97 @@
+package de.aboutcloud.cloudConfig.core;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import de.aboutcloud.cloudConfig.api.databasse.PoolStats;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/** Pool and related runtime state of one plugin's database. */
+final class PerPluginDatabase implements DatabasePoolMXBean {
+    final String plugin;
+    final String database;
+    // what callers get: the Hikari pool itself, or a tenant of a shared one
+    final DataSource dataSource;
+    // the underlying pool; owned by this plugin unless tenant != null
+    final HikariDataSource hikari;
+    final SharedPool.Tenant tenant;
+    final PoolMetrics metrics;
+    final CircuitBreaker breaker;
+    // async work in flight, bounded by the pool size so virtual threads queue here instead of in Hikari
+    final Semaphore asyncPermits;
+    // replicas list from database.yml, null without one
+    volatile ReplicaSet replicas;
+    // config/db/queries/*.sql, reloaded with the pool or when SQL variables change
+    volatile Map<String, NamedQuery> queries = Map.of();
+
+    PerPluginDatabase(String plugin, String database, HikariDataSource hikari, PoolMetrics metrics, CircuitBreaker breaker,
+                      int maxPoolSize) {
+        this(plugin, database, hikari, hikari, null, metrics, breaker, maxPoolSize);
+    }
+
+    PerPluginDatabase(String plugin, String database, SharedPool.Tenant tenant, HikariDataSource shared, PoolMetrics metrics,
+                      CircuitBreaker breaker) {
+        this(plugin, database, tenant, shared, tenant, metrics, breaker, tenant.ceiling);
+    }
+
+    private PerPluginDatabase(String plugin, String database, DataSource dataSource, HikariDataSource hikari,
+                              SharedPool.Tenant tenant, PoolMetrics metrics, CircuitBreaker breaker, int maxPoolSize) {
+        this.plugin = plugin;
+        this.database = database;
+        this.dataSource = dataSource;
+        this.hikari = hikari;
+        this.tenant = tenant;
+        this.metrics = metrics;
+        this.breaker = breaker;
+        this.asyncPermits = new Semaphore(maxPoolSize, true);
+    }
+
+    boolean shared() { return tenant != null; }
+
+    PoolStats stats() {
+        HikariPoolMXBean mx = hikari.getHikariPoolMXBean();
+        int idle = mx == null ? 0 : mx.getIdleConnections();
+        int active, pending, max;
+        if (tenant != null) {
+            active = tenant.inUse();
+            pending = tenant.waiting();
+            max = tenant.ceiling;
+        } else {
+            active = mx == null ? 0 : mx.getActiveConnections();
+            pending = mx == null ? 0 : mx.getThreadsAwaitingConnection();
+            max = hikari.getMaximumPoolSize();
+        }
+        var m = metrics;
+        return new PoolStats(plugin, shared(), active, idle, pending, max,
+                m.acquire.count(), m.timeouts.sum(), m.acquire.meanMillis(), m.acquire.percentileMillis(0.95), m.acquire.maxMillis(),
+                m.usage.meanMillis(), m.usage.percentileMillis(0.95),
+                m.transactions.count(), m.rollbacks.sum(), m.slow.sum(),
+                m.transactions.meanMillis(), m.transactions.percentileMillis(0.95), m.transactions.maxMillis(),
+                m.retries.sum(), breaker.isOpen(), m.circuitOpens.sum(), m.rejected.sum());
+    }
+
+    // ----- DatabasePoolMXBean -----
+
+    @Override public boolean isShared() { return shared(); }
+    @Override public int getActiveConnections() { return stats().active(); }
+    @Override public int getIdleConnections() { return stats().idle(); }
+    @Override public int getPendingThreads() { return stats().pending(); }
+    @Override public int getMaxConnections() { return stats().max(); }
+    @Override public long getAcquireCount() { return metrics.acquire.count(); }
+    @Override public long getAcquireTimeouts() { return metrics.timeouts.sum(); }
+    @Override public double getAcquireMeanMillis() { return metrics.acquire.meanMillis(); }
+    @Override public double getAcquireP95Millis() { return metrics.acquire.percentileMillis(0.95); }
+    @Override public double getAcquireMaxMillis() { return metrics.acquire.maxMillis(); }
+    @Override public double getUsageP95Millis() { return metrics.usage.percentileMillis(0.95); }
+    @Override public long getTransactionCount() { return metrics.transactions.count(); }
+    @Override public long getRollbackCount() { return metrics.rollbacks.sum(); }
+    @Override public long getSlowTransactionCount() { return metrics.slow.sum(); }
+    @Override public double getTransactionP95Millis() { return metrics.transactions.percentileMillis(0.95); }
+    @Override public double getTransactionMaxMillis() { return metrics.transactions.maxMillis(); }
+    @Override public long getRetryCount() { return metrics.retries.sum(); }
+    @Override public boolean isCircuitOpen() { return breaker.isOpen(); }
+    @Override public long getCircuitOpenCount() { return metrics.circuitOpens.sum(); }
+    @Override public long getRejectedCount() { return metrics.rejected.sum(); }
+}
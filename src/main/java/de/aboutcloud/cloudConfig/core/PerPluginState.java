@@ -1,16 +1,92 @@
 package de.aboutcloud.cloudConfig.core;
 
+import de.aboutcloud.cloudConfig.api.config.ConfigView;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Configs and locales of one plugin, published as an immutable {@link Snapshot}.
+ * Readers only do a volatile read; writers copy, modify and swap under the state's lock.
+ */
 final class PerPluginState {
+    // global so versions keep increasing when a plugin re-registers with a fresh state
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
     final JavaPlugin plugin;
-    final Map<String, FileConfiguration> configs = new HashMap<>();
-    final Map<Locale, LocaleBundle> bundles = new HashMap<>();
-    final Set<Locale> availableLocales = new TreeSet<>(Comparator.comparing(Locale::toLanguageTag));
-    Locale defaultLocale = Locale.ENGLISH;
+    final Locale defaultLocale;
+    // mtime of our own saves, so the file watcher can skip them
+    final Map<String, FileTime> written = new ConcurrentHashMap<>();
+    // getCompactConfig views, replaced per file on reload
+    final Map<String, ConfigView> compact = new ConcurrentHashMap<>();
+
+    private volatile Snapshot snapshot;
+    // per config file, bumped after every publish or in-place save
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    record Snapshot(long generation, Map<String, FileConfiguration> configs, LocaleIndex locales) {}
+
+    PerPluginState(JavaPlugin plugin, Locale defaultLocale) {
+        this.plugin = plugin;
+        this.defaultLocale = defaultLocale;
+        this.snapshot = new Snapshot(0, Map.of(), new LocaleIndex(Map.of(), defaultLocale));
+    }
+
+    Snapshot snapshot() { return snapshot; }
+
+    /**
+     * Version of a config file's content. Read it before the snapshot: versions are bumped after
+     * the snapshot is swapped, so a version never belongs to an older config than the one read next.
+     */
+    long version(String fileName) {
+        return versions.getOrDefault(fileName, 0L);
+    }
+
+    /** Marks a config as changed in place (e.g. mutated and saved). */
+    void touch(String fileName) {
+        versions.put(fileName, VERSIONS.incrementAndGet());
+    }
+
+    synchronized Snapshot publish(Map<String, FileConfiguration> configs, LocaleIndex locales) {
+        Snapshot cur = snapshot;
+        snapshot = new Snapshot(cur.generation + 1, Map.copyOf(configs), locales);
+        configs.keySet().forEach(this::touch);
+        return snapshot;
+    }
+
+    synchronized Snapshot publishConfig(String fileName, FileConfiguration cfg) {
+        Snapshot cur = snapshot;
+        Map<String, FileConfiguration> next = new HashMap<>(cur.configs);
+        next.put(fileName, cfg);
+        snapshot = new Snapshot(cur.generation + 1, Map.copyOf(next), cur.locales);
+        touch(fileName);
+        return snapshot;
+    }
+
+    /** Publishes {@code cfg} unless another thread loaded the file first; returns the winner. */
+    synchronized FileConfiguration publishConfigIfAbsent(String fileName, FileConfiguration cfg) {
+        FileConfiguration existing = snapshot.configs.get(fileName);
+        if (existing != null) return existing;
+        publishConfig(fileName, cfg);
+        return cfg;
+    }
+
+    synchronized Snapshot publishLocales(LocaleIndex locales) {
+        Snapshot cur = snapshot;
+        return snapshot = new Snapshot(cur.generation + 1, cur.configs, locales);
+    }
 
-    PerPluginState(JavaPlugin plugin) { this.plugin = plugin; }
+    /** Applies re-parsed bundles (null value = file removed) on top of the current generation. */
+    synchronized Snapshot publishLocaleChanges(Map<Locale, LocaleBundle> changes) {
+        Map<Locale, LocaleBundle> next = new HashMap<>(snapshot.locales.bundles());
+        changes.forEach((loc, b) -> {
+            if (b == null) next.remove(loc);
+            else next.put(loc, b);
+        });
+        return publishLocales(new LocaleIndex(next, defaultLocale));
+    }
 }
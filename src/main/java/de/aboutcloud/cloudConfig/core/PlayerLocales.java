@@ -0,0 +1,99 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.util.LocaleUtil;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Effective message locale of every online player, resolved on join and on client locale changes
+ * instead of per message. A persisted override (player-locales.yml in CloudConfig's data folder)
+ * wins over the client setting.
+ */
+final class PlayerLocales implements Listener {
+    private final Map<UUID, Locale> effective = new ConcurrentHashMap<>();
+    private final Map<UUID, Locale> overrides = new ConcurrentHashMap<>();
+    private final Path file;
+    private final YamlConfiguration stored;
+    private final ConfigWriter writer;
+
+    PlayerLocales(Path file, ConfigWriter writer) {
+        this.file = file;
+        this.writer = writer;
+        this.stored = Files.exists(file) ? YamlConfiguration.loadConfiguration(file.toFile()) : new YamlConfiguration();
+        for (String k : stored.getKeys(false)) {
+            try {
+                overrides.put(UUID.fromString(k), LocaleUtil.parseLocale(stored.getString(k)));
+            } catch (IllegalArgumentException ignored) {
+                // not a UUID; left in the file untouched
+            }
+        }
+    }
+
+    /** Cached locale of an online player, or null if unknown (not joined through this listener). */
+    Locale get(UUID player) {
+        return effective.get(player);
+    }
+
+    Locale override(UUID player) {
+        return overrides.get(player);
+    }
+
+    /** Seeds players that were already online, e.g. after a plugin reload. */
+    void track(Player p) {
+        update(p.getUniqueId(), p.locale());
+    }
+
+    /**
+     * Pins (or with null, unpins) a player's locale and persists the choice. Synchronized because the
+     * command may run off the main thread: {@code stored} is mutated and serialized under the lock, and
+     * the snapshot is scheduled before releasing it so the newest state is always the one written.
+     */
+    void setOverride(UUID player, Locale locale, Player online) {
+        synchronized (stored) {
+            if (locale == null) {
+                overrides.remove(player);
+                stored.set(player.toString(), null);
+            } else {
+                overrides.put(player, locale);
+                stored.set(player.toString(), locale.toLanguageTag());
+            }
+            writer.schedule(file, stored.saveToString(), mtime -> {});
+        }
+        if (online != null) track(online);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent e) {
+        track(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent e) {
+        update(e.getPlayer().getUniqueId(), e.locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        effective.remove(e.getPlayer().getUniqueId());
+    }
+
+    private void update(UUID player, Locale client) {
+        Locale o = overrides.get(player);
+        Locale l = o != null ? o : client;
+        if (l != null) effective.put(player, l);
+        else effective.remove(player);
+    }
+}
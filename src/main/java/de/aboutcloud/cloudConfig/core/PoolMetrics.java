@@ -0,0 +1,51 @@
+package de.aboutcloud.cloudConfig.core;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-plugin pool metrics. Dedicated pools feed it through Hikari's metrics tracker,
+ * shared-pool tenants record their own acquires (including quota waits).
+ */
+final class PoolMetrics implements IMetricsTracker {
+    final LatencyHistogram acquire = new LatencyHistogram();
+    final LatencyHistogram usage = new LatencyHistogram();
+    final LatencyHistogram transactions = new LatencyHistogram();
+    final LongAdder timeouts = new LongAdder();
+    final LongAdder rollbacks = new LongAdder();
+    final LongAdder slow = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder circuitOpens = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    private final long slowTxNanos;
+
+    PoolMetrics(long slowTxMs) {
+        this.slowTxNanos = slowTxMs > 0 ? TimeUnit.MILLISECONDS.toNanos(slowTxMs) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquire.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    /** Returns true if the transaction exceeded the slow threshold. */
+    boolean recordTransaction(long nanos, boolean rolledBack) {
+        transactions.record(nanos);
+        if (rolledBack) rollbacks.increment();
+        if (nanos < slowTxNanos) return false;
+        slow.increment();
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package de.aboutcloud.cloudConfig.core;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas of one plugin's database. Reads go to the healthy replica with the fewest active
+ * connections per weight; a background check marks replicas down when they stop answering or lag
+ * more than {@code maxLagSeconds} behind the primary.
+ */
+final class ReplicaSet implements AutoCloseable {
+    static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        final int weight;
+        volatile boolean healthy = true;
+        volatile long lagSeconds;
+
+        Replica(String name, HikariDataSource dataSource, int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = Math.max(1, weight);
+        }
+
+        double load() {
+            HikariPoolMXBean mx = dataSource.getHikariPoolMXBean();
+            return mx == null ? 0 : (double) mx.getActiveConnections() / weight;
+        }
+    }
+
+    private final String plugin;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    final boolean fallbackToPrimary;
+    private final Logger log;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile boolean lagUnsupported;
+    private final ScheduledFuture<?> healthCheck;
+
+    ReplicaSet(String plugin, List<Replica> replicas, long maxLagSeconds, boolean fallbackToPrimary, Logger log,
+               ScheduledExecutorService timer, Executor worker, long checkIntervalMs) {
+        this.plugin = plugin;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLagSeconds;
+        this.fallbackToPrimary = fallbackToPrimary;
+        this.log = log;
+        // the timer thread is shared; the probes themselves block, so they run on a worker
+        this.healthCheck = timer.scheduleWithFixedDelay(() -> {
+            if (checking.compareAndSet(false, true)) worker.execute(this::check);
+        }, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A connection from the least loaded healthy replica, or null if none can be reached. Only connection
+     * failures mark a replica down; one whose pool is merely busy is skipped for this call.
+     */
+    Connection connection() {
+        int n = replicas.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), n);
+        boolean[] tried = new boolean[n];
+        for (int attempt = 0; attempt < n; attempt++) {
+            int best = -1;
+            double bestLoad = Double.MAX_VALUE;
+            for (int k = 0; k < n; k++) {
+                int i = (start + k) % n; // rotating start breaks ties round-robin
+                Replica r = replicas.get(i);
+                if (tried[i] || !r.healthy) continue;
+                double load = r.load();
+                if (load < bestLoad) {
+                    best = i;
+                    bestLoad = load;
+                }
+            }
+            if (best < 0) return null;
+            tried[best] = true;
+            Replica r = replicas.get(best);
+            try {
+                return r.dataSource.getConnection();
+            } catch (SQLException e) {
+                if (CircuitBreaker.isConnectionError(e) && !isPoolTimeout(e)) markDown(r, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /** Hikari's "request timed out" with no underlying connection failure: every connection is in use. */
+    private static boolean isPoolTimeout(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getSQLState() == null && e.getCause() == null;
+    }
+
+    private void check() {
+        try {
+            for (Replica r : replicas) {
+                try (Connection c = r.dataSource.getConnection()) {
+                    if (!c.isValid(2)) {
+                        markDown(r, "connection not valid");
+                        continue;
+                    }
+                    Long lag = maxLagSeconds > 0 ? lag(c) : Long.valueOf(0);
+                    if (lag == null) {
+                        markDown(r, "replication is not running");
+                    } else if (lag > maxLagSeconds && maxLagSeconds > 0) {
+                        r.lagSeconds = lag;
+                        markDown(r, "lagging " + lag + "s behind the primary");
+                    } else {
+                        r.lagSeconds = lag;
+                        markUp(r);
+                    }
+                } catch (SQLException e) {
+                    markDown(r, e.getMessage());
+                }
+            }
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    /**
+     * Seconds_Behind_Master, 0 if the server is no replica, null if replication is stopped.
+     * Other failures than a missing privilege are thrown, so the replica is marked down.
+     */
+    private Long lag(Connection c) throws SQLException {
+        if (lagUnsupported) return 0L;
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SHOW SLAVE STATUS")) {
+            if (!rs.next()) return 0L;
+            long lag = rs.getLong("Seconds_Behind_Master");
+            return rs.wasNull() ? null : lag;
+        } catch (SQLException e) {
+            if (!isPermissionError(e)) throw e;
+            // missing REPLICATION CLIENT / SLAVE MONITOR grant
+            lagUnsupported = true;
+            log.warn("[CloudConfig] Cannot read replication lag for {} ({}); only checking availability", plugin, e.getMessage());
+            return 0L;
+        }
+    }
+
+    // 1227 ER_SPECIFIC_ACCESS_DENIED_ERROR, 1045 ER_ACCESS_DENIED_ERROR, 42000 access rule violation
+    private static boolean isPermissionError(SQLException e) {
+        return e.getErrorCode() == 1227 || e.getErrorCode() == 1045 || "42000".equals(e.getSQLState());
+    }
+
+    private void markDown(Replica r, String reason) {
+        if (r.healthy) {
+            r.healthy = false;
+            log.warn("[CloudConfig] Read replica {} of {} is down: {}", r.name, plugin, reason);
+        }
+    }
+
+    private void markUp(Replica r) {
+        if (!r.healthy) {
+            r.healthy = true;
+            log.info("[CloudConfig] Read replica {} of {} is back", r.name, plugin);
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.cancel(false);
+        for (Replica r : replicas) r.dataSource.close();
+    }
+}
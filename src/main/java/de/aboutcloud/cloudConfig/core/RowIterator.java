@@ -0,0 +1,72 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.RowMapper;
+import de.aboutcloud.cloudConfig.api.databasse.UncheckedSQLException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only iterator over a streaming result set. Owns the statement and the connection and
+ * releases them once the last row has been read, on a mapping error, or on {@link #close()}.
+ */
+final class RowIterator<T> implements Iterator<T>, AutoCloseable {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private int row;
+    private boolean advanced, hasRow, closed;
+
+    RowIterator(Connection connection, PreparedStatement statement, ResultSet rs, RowMapper<T> mapper) {
+        this.connection = connection;
+        this.statement = statement;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) return false;
+        if (!advanced) {
+            try {
+                hasRow = rs.next();
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException(e);
+            }
+            advanced = true;
+            if (!hasRow) close();
+        }
+        return hasRow;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        advanced = false;
+        try {
+            return mapper.map(rs, row++);
+        } catch (SQLException e) {
+            close();
+            throw new UncheckedSQLException(e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        // closing the statement drains the rest of a streamed result, so close the connection even if it fails
+        try (connection; statement; rs) {
+        } catch (SQLException ignored) {
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package de.aboutcloud.cloudConfig.core;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * One Hikari pool shared by every plugin that connects to the same server with the same credentials.
+ * Each plugin is a {@link Tenant} with its own default schema, a guaranteed number of connections
+ * and a ceiling. Capacity beyond the guarantees is a burst share, handed out one connection per
+ * waiting tenant in turn, so a tenant with many waiting threads cannot starve the others.
+ * <p>
+ * Pool-wide settings (timeouts, driver properties) come from the plugin that created the pool.
+ * Idle connections follow demand: the pool keeps as many as were in use at the peak of the last
+ * {@value #IDLE_WINDOW_MS} ms, not one per guaranteed connection.
+ */
+final class SharedPool implements AutoCloseable {
+    record Key(String host, int port, String user, String password, boolean ssl) {
+        @Override public String toString() { return user + "@" + host + ":" + port + (ssl ? " (ssl)" : ""); }
+    }
+
+    static final long IDLE_WINDOW_MS = 60_000;
+
+    final Key key;
+    final HikariDataSource hikari;
+    final String createdBy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>(); // guarded by lock
+    private final ArrayDeque<Tenant> turns = new ArrayDeque<>(); // tenants waiting for a burst connection; guarded by lock
+    private int reservedTotal; // guarded by lock
+    private int burstInUse;    // guarded by lock, includes burst connections handed to a tenant but not yet taken
+    private int capacity;      // guarded by lock
+    private int inUse;         // guarded by lock
+    private int peakInUse;     // guarded by lock, since the last idle adjustment
+    private final ScheduledFuture<?> idleAdjust;
+
+    SharedPool(Key key, HikariDataSource hikari, String createdBy, ScheduledExecutorService timer) {
+        this.key = key;
+        this.hikari = hikari;
+        this.createdBy = createdBy;
+        this.idleAdjust = timer.scheduleWithFixedDelay(this::adjustIdle, IDLE_WINDOW_MS, IDLE_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    Tenant join(String plugin, String database, int guaranteed, int ceiling, long timeoutMs, PoolMetrics metrics) {
+        lock.lock();
+        try {
+            Tenant t = new Tenant(plugin, database, Math.max(0, guaranteed), Math.max(1, ceiling), timeoutMs, metrics);
+            Tenant old = tenants.put(plugin, t);
+            if (old != null) reservedTotal -= old.guaranteed;
+            reservedTotal += t.guaranteed;
+            resize();
+            return t;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Removes the tenant; returns true if the pool has no tenants left. */
+    boolean leave(Tenant t) {
+        lock.lock();
+        try {
+            if (tenants.remove(t.plugin, t)) {
+                reservedTotal -= t.guaranteed;
+                turns.remove(t);
+                burstInUse -= t.grants;
+                t.grants = 0;
+                resize();
+                for (Tenant other : tenants.values()) other.available.signalAll();
+            }
+            return tenants.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int tenantCount() {
+        lock.lock();
+        try {
+            return tenants.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        idleAdjust.cancel(false);
+        hikari.close();
+    }
+
+    /** Size = all guarantees, or the largest single ceiling if that is bigger. */
+    private void resize() {
+        int maxCeiling = 0;
+        for (Tenant t : tenants.values()) maxCeiling = Math.max(maxCeiling, t.ceiling);
+        capacity = Math.max(1, Math.max(reservedTotal, maxCeiling));
+        var mx = hikari.getHikariConfigMXBean();
+        mx.setMaximumPoolSize(capacity);
+        mx.setMinimumIdle(Math.min(peakInUse, capacity));
+        handOff(); // a bigger burst share may serve waiting tenants now
+    }
+
+    /** Keeps idle what the last window needed at its peak; Hikari retires the rest after idleTimeout. */
+    private void adjustIdle() {
+        lock.lock();
+        try {
+            hikari.getHikariConfigMXBean().setMinimumIdle(Math.min(peakInUse, capacity));
+            peakInUse = inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands free burst connections to waiting tenants, one per tenant in turn. */
+    private void handOff() {
+        while (burstInUse < capacity - reservedTotal) {
+            Tenant t = turns.poll();
+            if (t == null) return;
+            // skip tenants nobody waits for anymore, or that are below their guarantee or at their ceiling
+            if (t.waiting <= t.grants || t.inUse < t.guaranteed || t.inUse + t.grants >= t.ceiling) continue;
+            burstInUse++;
+            t.grants++;
+            t.available.signal();
+            if (t.waiting > t.grants) turns.add(t); // more waiting: back of the line
+        }
+    }
+
+    /** A plugin's logical view: connections default to its schema and count against its quota. */
+    final class Tenant implements DataSource {
+        final String plugin;
+        final String database;
+        final int guaranteed;
+        final int ceiling;
+        private final long timeoutNanos;
+        private final PoolMetrics metrics;
+        private final Condition available = lock.newCondition();
+        private int inUse;   // guarded by lock
+        private int waiting; // guarded by lock
+        private int grants;  // burst connections handed to this tenant, not yet taken; guarded by lock
+
+        private Tenant(String plugin, String database, int guaranteed, int ceiling, long timeoutMs, PoolMetrics metrics) {
+            this.plugin = plugin;
+            this.database = database;
+            this.guaranteed = Math.min(guaranteed, ceiling);
+            this.ceiling = ceiling;
+            this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            this.metrics = metrics;
+        }
+
+        SharedPool owner() { return SharedPool.this; }
+
+        int inUse() {
+            lock.lock();
+            try {
+                return inUse;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int waiting() {
+            lock.lock();
+            try {
+                return waiting;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            acquireSlot();
+            Connection c;
+            try {
+                c = hikari.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                releaseSlot();
+                if (e instanceof SQLTransientConnectionException) metrics.recordConnectionTimeout();
+                throw e;
+            }
+            try {
+                c.setCatalog(database);
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    c.close(); // back to Hikari, or it leaks from the shared pool
+                } catch (SQLException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                releaseSlot();
+                throw e;
+            }
+            long acquired = System.nanoTime();
+            metrics.recordConnectionAcquiredNanos(acquired - start);
+            return wrap(c, acquired);
+        }
+
+        /** A guaranteed connection right away, else a burst connection once it is this tenant's turn. */
+        private void acquireSlot() throws SQLException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            lock.lock();
+            waiting++;
+            try {
+                while (inUse >= guaranteed) {
+                    if (grants > 0) {
+                        grants--;
+                        break;
+                    }
+                    if (inUse < ceiling && !turns.contains(this)) turns.add(this);
+                    handOff();
+                    if (grants > 0) continue;
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        metrics.recordConnectionTimeout();
+                        throw new SQLTransientConnectionException("Shared pool " + key + " saturated for " + plugin
+                                + " (" + inUse + "/" + ceiling + " in use)");
+                    }
+                    available.awaitNanos(left);
+                }
+                inUse++;
+                SharedPool.this.inUse++;
+                peakInUse = Math.max(peakInUse, SharedPool.this.inUse);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+            } finally {
+                waiting--;
+                if (grants > 0) {
+                    if (waiting > 0) {
+                        available.signal(); // the grant may have been meant for this thread
+                    } else { // handed over, but nobody left to take it
+                        burstInUse -= grants;
+                        grants = 0;
+                        handOff();
+                    }
+                }
+                lock.unlock();
+            }
+        }
+
+        private void releaseSlot() {
+            lock.lock();
+            try {
+                inUse--;
+                SharedPool.this.inUse--;
+                if (inUse >= guaranteed) {
+                    burstInUse--;
+                    handOff();
+                }
+                available.signal(); // a guaranteed connection or room below the ceiling
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Proxy whose close() hands the slot back exactly once. */
+        private Connection wrap(Connection c, long acquiredAt) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, m, args) -> {
+                        if (m.getName().equals("close") && m.getParameterCount() == 0) {
+                            try {
+                                c.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    releaseSlot();
+                                    metrics.usage.record(System.nanoTime() - acquiredAt);
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return m.invoke(c, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Shared pools use the configured credentials");
+        }
+
+        @Override public PrintWriter getLogWriter() throws SQLException { return hikari.getLogWriter(); }
+        @Override public void setLogWriter(PrintWriter out) throws SQLException { hikari.setLogWriter(out); }
+        @Override public void setLoginTimeout(int seconds) throws SQLException { hikari.setLoginTimeout(seconds); }
+        @Override public int getLoginTimeout() throws SQLException { return hikari.getLoginTimeout(); }
+        @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { return hikari.getParentLogger(); }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) return iface.cast(this);
+            throw new SQLException("Not a wrapper for " + iface.getName());
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return iface.isInstance(this);
+        }
+    }
+}
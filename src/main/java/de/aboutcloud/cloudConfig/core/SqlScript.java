@@ -0,0 +1,254 @@
+package de.aboutcloud.cloudConfig.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
+
+/**
+ * Streaming SQL statement reader for migration files. Reads one statement at a time, so memory
+ * stays bounded by the largest statement. Understands quotes (with backslash and doubled-quote
+ * escapes), backticks, {@code --}, {@code #} and block comments (keeping {@code /*! ... *}{@code /}
+ * hints), and {@code DELIMITER} lines. {@code ${var}} is substituted in the same pass; unknown
+ * variables are left as they are.
+ */
+final class SqlScript implements Closeable {
+    private final Reader in;
+    private final Map<String, String> vars;
+    private final char[] buf = new char[8192];
+    private int pos, len;
+    private boolean eof;
+    private String delimiter = ";";
+    private final StringBuilder cur = new StringBuilder(256);
+
+    SqlScript(Reader in, Map<String, String> vars) {
+        this.in = in;
+        this.vars = vars;
+    }
+
+    /** Opens {@code file}; every byte read is also fed into {@code checksum}. */
+    static SqlScript open(Path file, Map<String, String> vars, Checksum checksum) throws IOException {
+        InputStream raw = new CheckedInputStream(Files.newInputStream(file), checksum);
+        return new SqlScript(new InputStreamReader(raw, StandardCharsets.UTF_8), vars);
+    }
+
+    /** CRC32C of the raw file, as stored in cloudconfig_schema_version.checksum. */
+    static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream raw = new CheckedInputStream(Files.newInputStream(file), crc)) {
+            raw.transferTo(OutputStream.nullOutputStream());
+        }
+        return crc.getValue();
+    }
+
+    /** Plain DML that can go into a JDBC batch; DDL and everything else runs on its own. */
+    static boolean isBatchable(String stmt) {
+        int i = 0;
+        while (i < stmt.length() && Character.isWhitespace(stmt.charAt(i))) i++;
+        int j = i;
+        while (j < stmt.length() && Character.isLetter(stmt.charAt(j))) j++;
+        return switch (stmt.substring(i, j).toUpperCase(Locale.ROOT)) {
+            case "INSERT", "UPDATE", "DELETE", "REPLACE" -> true;
+            default -> false;
+        };
+    }
+
+    /** Next statement without its delimiter, or null at the end of the script. */
+    String next() throws IOException {
+        cur.setLength(0);
+        boolean lineStart = true;
+        while (true) {
+            int ch = peek(0);
+            if (ch < 0) break;
+            if (lineStart && isBlank(cur) && startsWithIgnoreCase("DELIMITER") && isSpace(peek(9))) {
+                pos += 9;
+                String d = readLine().strip();
+                if (!d.isEmpty()) delimiter = d;
+                continue;
+            }
+            if (matches(delimiter)) {
+                pos += delimiter.length();
+                if (isBlank(cur)) {
+                    lineStart = false;
+                    continue;
+                }
+                return cur.toString().strip();
+            }
+            if (!isSpace(ch)) lineStart = false;
+            switch (ch) {
+                case '\n' -> {
+                    pos++;
+                    cur.append('\n');
+                    lineStart = true;
+                }
+                case '\'', '"', '`' -> quoted((char) ch);
+                case '#' -> {
+                    readLine();
+                    cur.append('\n');
+                    lineStart = true;
+                }
+                case '-' -> {
+                    if (peek(1) == '-' && (isSpace(peek(2)) || peek(2) < 0)) {
+                        readLine();
+                        cur.append('\n');
+                        lineStart = true;
+                    } else {
+                        cur.append('-');
+                        pos++;
+                    }
+                }
+                case '/' -> {
+                    if (peek(1) == '*') blockComment();
+                    else {
+                        cur.append('/');
+                        pos++;
+                    }
+                }
+                case '$' -> variable();
+                default -> {
+                    cur.append((char) ch);
+                    pos++;
+                }
+            }
+        }
+        String last = cur.toString().strip();
+        cur.setLength(0);
+        return last.isEmpty() ? null : last;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ----- lexing -----
+
+    private void quoted(char q) throws IOException {
+        cur.append(q);
+        pos++;
+        while (true) {
+            int ch = peek(0);
+            if (ch < 0) return; // unterminated; let the server report it
+            pos++;
+            if (ch == '\\' && q != '`') {
+                cur.append('\\');
+                int esc = peek(0);
+                if (esc >= 0) {
+                    cur.append((char) esc);
+                    pos++;
+                }
+                continue;
+            }
+            if (ch == '$' && peek(0) == '{') {
+                pos--;
+                variable();
+                continue;
+            }
+            cur.append((char) ch);
+            if (ch == q) return; // a doubled quote simply reopens on the next char
+        }
+    }
+
+    private void blockComment() throws IOException {
+        boolean keep = peek(2) == '!' || peek(2) == '+'; // executable comment / optimizer hint
+        if (keep) cur.append("/*");
+        else cur.append(' ');
+        pos += 2;
+        while (true) {
+            int ch = peek(0);
+            if (ch < 0) return;
+            if (ch == '*' && peek(1) == '/') {
+                pos += 2;
+                if (keep) cur.append("*/");
+                return;
+            }
+            if (keep) cur.append((char) ch);
+            pos++;
+        }
+    }
+
+    private void variable() throws IOException {
+        if (peek(1) != '{') {
+            cur.append('$');
+            pos++;
+            return;
+        }
+        int i = 2;
+        StringBuilder name = new StringBuilder();
+        while (true) {
+            int ch = peek(i);
+            if (ch == '}') break;
+            if (ch < 0 || !(Character.isLetterOrDigit(ch) || ch == '_' || ch == '.' || ch == '-')) {
+                cur.append('$'); // not a variable reference
+                pos++;
+                return;
+            }
+            name.append((char) ch);
+            i++;
+        }
+        String v = vars.get(name.toString());
+        if (v != null) cur.append(v);
+        else cur.append("${").append(name).append('}');
+        pos += i + 1;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int ch = peek(0);
+            if (ch < 0) break;
+            pos++;
+            if (ch == '\n') break;
+            sb.append((char) ch);
+        }
+        return sb.toString();
+    }
+
+    private boolean matches(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            if (peek(i) != s.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean startsWithIgnoreCase(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            int ch = peek(i);
+            if (ch < 0 || Character.toUpperCase((char) ch) != s.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** Char at {@code pos + offset}, or -1 past the end; refills the buffer as needed. */
+    private int peek(int offset) throws IOException {
+        while (pos + offset >= len) {
+            if (eof) return -1;
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, len - pos);
+                len -= pos;
+                pos = 0;
+            }
+            if (len == buf.length) throw new IOException("Lookahead too long");
+            int n = in.read(buf, len, buf.length - len);
+            if (n < 0) eof = true;
+            else len += n;
+        }
+        return buf[pos + offset];
+    }
+
+    private static boolean isSpace(int ch) {
+        return ch == ' ' || ch == '\t' || ch == '\r' || ch == '\n';
+    }
+
+    private static boolean isBlank(CharSequence cs) {
+        for (int i = 0; i < cs.length(); i++) {
+            if (!Character.isWhitespace(cs.charAt(i))) return false;
+        }
+        return true;
+    }
+}
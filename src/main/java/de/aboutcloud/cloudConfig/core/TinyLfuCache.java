@@ -0,0 +1,337 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.CacheSpec;
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import de.aboutcloud.cloudConfig.api.databasse.DbCache;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU order with TinyLFU admission: when the cache is full, a new entry only displaces the
+ * least recently used one if it has been requested more often (per a small count-min sketch).
+ * Reads never block; recency updates are skipped while another thread holds the eviction lock.
+ */
+final class TinyLfuCache<K, V> implements DbCache<K, V> {
+    private static final Object ABSENT = new Object();
+
+    private final String name;
+    private final JavaPlugin plugin;
+    private final CloudDatabaseService db;
+    private final CacheSpec<K, V> spec;
+    private final long ttlNanos;
+
+    private final Map<K, Node> data = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private final Map<String, Set<K>> tagIndex = new ConcurrentHashMap<>();
+    // bumped by every invalidation so loads that raced with one are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true); // guarded by evictionLock
+    private long weight; // guarded by evictionLock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Node(Object value, long weight, long expiresAt, Collection<String> tags) {}
+
+    TinyLfuCache(String name, JavaPlugin plugin, CloudDatabaseService db, CacheSpec<K, V> spec) {
+        this.name = name;
+        this.plugin = plugin;
+        this.db = db;
+        this.spec = spec;
+        this.ttlNanos = spec.ttl().toNanos();
+        this.sketch = new FrequencySketch((int) Math.min(spec.maxWeight(), 1 << 20));
+    }
+
+    @Override
+    public V get(K key) throws SQLException {
+        Object v = lookup(key);
+        if (v != null) return unwrap(v);
+        misses.increment();
+        return load(key);
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<? extends K> keys) throws SQLException {
+        Map<K, V> out = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K k : keys) {
+            Object v = lookup(k);
+            if (v == null) {
+                misses.increment();
+                missing.add(k);
+            } else if (v != ABSENT) {
+                out.put(k, unwrap(v));
+            }
+        }
+        if (missing.isEmpty()) return out;
+
+        long inv = invalidations.get();
+        long start = System.nanoTime();
+        Map<K, V> loaded;
+        try {
+            loaded = db.withConnection(plugin, c -> {
+                if (spec.bulkLoader() != null) return spec.bulkLoader().loadAll(c, missing);
+                Map<K, V> m = new HashMap<>();
+                for (K k : missing) {
+                    V v = spec.loader().load(c, k);
+                    if (v != null) m.put(k, v);
+                }
+                return m;
+            });
+        } catch (SQLException | RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        }
+        loads.increment();
+        loadNanos.add(System.nanoTime() - start);
+        for (K k : missing) {
+            V v = loaded.get(k);
+            if (inv == invalidations.get()) insert(k, v);
+            if (v != null) out.put(k, v);
+        }
+        return out;
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        Object v = lookup(key);
+        return v == null ? null : unwrap(v);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        insert(key, value);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        evictionLock.lock();
+        try {
+            removeLocked(key);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateTag(String tag) {
+        invalidations.incrementAndGet();
+        Set<K> keys = tagIndex.remove(tag);
+        if (keys == null) return;
+        evictionLock.lock();
+        try {
+            for (K k : keys) removeLocked(k);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        evictionLock.lock();
+        try {
+            data.clear();
+            order.clear();
+            tagIndex.clear();
+            weight = 0;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        long w;
+        evictionLock.lock();
+        try {
+            w = weight;
+        } finally {
+            evictionLock.unlock();
+        }
+        long n = loads.sum();
+        return new Stats(name, data.size(), w, hits.sum(), misses.sum(), n, loadFailures.sum(), evictions.sum(),
+                n == 0 ? 0 : loadNanos.sum() / 1e6 / n);
+    }
+
+    // ----- internals -----
+
+    /** Fresh cached value (ABSENT for a cached miss) or null; counts hits and feeds the sketch. */
+    private Object lookup(K key) {
+        sketch.increment(key.hashCode());
+        Node n = data.get(key);
+        if (n == null) return null;
+        if (n.expiresAt - System.nanoTime() <= 0) {
+            evictionLock.lock();
+            try {
+                if (data.get(key) == n) removeLocked(key);
+            } finally {
+                evictionLock.unlock();
+            }
+            return null;
+        }
+        hits.increment();
+        if (evictionLock.tryLock()) {
+            try {
+                order.get(key); // recency
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return n.value;
+    }
+
+    /** One load per key at a time; concurrent callers wait for it. */
+    private V load(K key) throws SQLException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return unwrap(running.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException se) throw se;
+                throw e;
+            }
+        }
+        long inv = invalidations.get();
+        long start = System.nanoTime();
+        try {
+            V v = db.withConnection(plugin, c -> spec.loader().load(c, key));
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+            if (inv == invalidations.get()) insert(key, v);
+            mine.complete(v == null ? ABSENT : v);
+            return v;
+        } catch (SQLException | RuntimeException e) {
+            loadFailures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private void insert(K key, V value) {
+        long w = value == null ? 1 : Math.max(1, spec.weigher().applyAsLong(value));
+        Collection<String> tags = value == null ? List.of() : List.copyOf(spec.tagger().apply(value));
+        Node node = new Node(value == null ? ABSENT : value, w, System.nanoTime() + ttlNanos, tags);
+        evictionLock.lock();
+        try {
+            removeLocked(key);
+            data.put(key, node);
+            order.put(key, Boolean.TRUE);
+            weight += w;
+            for (String t : tags) {
+                tagIndex.compute(t, (x, keys) -> {
+                    if (keys == null) keys = ConcurrentHashMap.newKeySet();
+                    keys.add(key);
+                    return keys;
+                });
+            }
+            evictLocked(key);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evictLocked(K candidate) {
+        boolean candidatePresent = true;
+        while (weight > spec.maxWeight() && !order.isEmpty()) {
+            Iterator<K> it = order.keySet().iterator();
+            K victim = it.next();
+            if (candidatePresent && victim.equals(candidate)) {
+                if (!it.hasNext()) break; // a single entry heavier than the bound stays
+                victim = it.next();
+            }
+            K evict = victim;
+            if (candidatePresent && sketch.frequency(candidate.hashCode()) < sketch.frequency(victim.hashCode())) {
+                evict = candidate; // rarely used newcomer is not admitted
+                candidatePresent = false;
+            }
+            removeLocked(evict);
+            evictions.increment();
+        }
+    }
+
+    private void removeLocked(K key) {
+        Node n = data.remove(key);
+        order.remove(key);
+        if (n == null) return;
+        weight -= n.weight;
+        for (String t : n.tags) {
+            // drop emptied sets, or every tag ever used stays in the index
+            tagIndex.computeIfPresent(t, (x, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unwrap(Object v) {
+        return v == ABSENT ? null : (V) v;
+    }
+
+    /** 4-bit count-min sketch with periodic halving; races only make counts slightly approximate. */
+    private static final class FrequencySketch {
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, capacity * 4 - 1)) << 1;
+            this.table = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = size * 10;
+        }
+
+        void increment(int hash) {
+            int h = spread(hash);
+            for (int i = 0; i < 4; i++) {
+                int idx = index(h, i);
+                if (table[idx] < 15) table[idx]++;
+            }
+            if (++additions >= sampleSize) reset();
+        }
+
+        int frequency(int hash) {
+            int h = spread(hash);
+            int min = 15;
+            for (int i = 0; i < 4; i++) min = Math.min(min, table[index(h, i)]);
+            return min;
+        }
+
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) table[i] >>= 1;
+        }
+
+        private int index(int h, int i) {
+            int x = h * (0x9E3779B9 + (i << 1)) + i * 0x85EBCA6B;
+            return (x ^ (x >>> 16)) & mask;
+        }
+
+        private static int spread(int h) {
+            h ^= h >>> 17;
+            h *= 0xED5AD4BB;
+            return h ^ (h >>> 11);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final PoolMetrics metrics = new PoolMetrics(0);
+    private volatile boolean databaseUp;
+
+    @AfterEach
+    void stopTimer() {
+        timer.shutdownNow();
+    }
+
+    private CircuitBreaker breaker(int threshold) {
+        DataSource ds = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("getConnection")) throw new UnsupportedOperationException(method.getName());
+                    if (!databaseUp) throw new SQLTransientConnectionException("down", "08S01");
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                            (p, m, a) -> switch (m.getName()) {
+                                case "isValid" -> true;
+                                case "close" -> null;
+                                default -> throw new UnsupportedOperationException(m.getName());
+                            });
+                });
+        return new CircuitBreaker("Test", ds, metrics, NOPLogger.NOP_LOGGER, timer, Runnable::run, threshold, 100);
+    }
+
+    private static SQLException connectionLost() {
+        return new SQLNonTransientConnectionException("Communications link failure", "08S01");
+    }
+
+    @Test
+    void classifiesConnectionErrors() {
+        assertTrue(CircuitBreaker.isConnectionError(new SQLException("refused", "08001")));
+        assertTrue(CircuitBreaker.isConnectionError(new SQLTransientConnectionException("timeout")));
+        assertTrue(CircuitBreaker.isConnectionError(new SQLRecoverableException("lost")));
+        assertFalse(CircuitBreaker.isConnectionError(new SQLSyntaxErrorException("bad", "42000", 1064)));
+        assertFalse(CircuitBreaker.isConnectionError(new SQLException("no state")));
+    }
+
+    @Test
+    void classifiesRetryableErrors() {
+        assertTrue(CircuitBreaker.isRetryable(new SQLException("deadlock", "40001", 1213)));
+        assertTrue(CircuitBreaker.isRetryable(new SQLException("lock wait timeout", "HY000", 1205)));
+        assertTrue(CircuitBreaker.isRetryable(new SQLTransactionRollbackException("rolled back")));
+        assertTrue(CircuitBreaker.isRetryable(connectionLost()));
+        assertFalse(CircuitBreaker.isRetryable(new SQLIntegrityConstraintViolationException("dup", "23000", 1062)));
+    }
+
+    @Test
+    void opensAfterConsecutiveConnectionFailures() {
+        CircuitBreaker cb = breaker(3);
+        cb.failure(connectionLost());
+        cb.failure(connectionLost());
+        assertFalse(cb.isOpen());
+        cb.failure(connectionLost());
+        assertTrue(cb.isOpen());
+        assertEquals(1, metrics.circuitOpens.sum());
+        SQLException e = assertThrows(SQLException.class, cb::check);
+        assertTrue(CircuitBreaker.isConnectionError(e));
+        assertEquals(1, metrics.rejected.sum());
+    }
+
+    @Test
+    void successResetsTheCount() throws SQLException {
+        CircuitBreaker cb = breaker(2);
+        cb.failure(connectionLost());
+        cb.success();
+        cb.failure(connectionLost());
+        assertFalse(cb.isOpen());
+        cb.check();
+    }
+
+    @Test
+    void statementErrorsDoNotCount() {
+        CircuitBreaker cb = breaker(1);
+        cb.failure(new SQLSyntaxErrorException("bad", "42000", 1064));
+        assertFalse(cb.isOpen());
+    }
+
+    @Test
+    void zeroThresholdDisablesTheBreaker() {
+        CircuitBreaker cb = breaker(0);
+        for (int i = 0; i < 10; i++) cb.failure(connectionLost());
+        assertFalse(cb.isOpen());
+    }
+
+    @Test
+    void probeClosesOnceTheDatabaseAnswers() throws InterruptedException {
+        CircuitBreaker cb = breaker(1);
+        cb.failure(connectionLost());
+        assertTrue(cb.isOpen());
+        Thread.sleep(250); // a probe or two fail while the database is down
+        assertTrue(cb.isOpen());
+        databaseUp = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cb.isOpen() && System.nanoTime() < deadline) Thread.sleep(20);
+        assertFalse(cb.isOpen());
+    }
+}
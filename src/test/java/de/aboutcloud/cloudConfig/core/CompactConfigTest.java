@@ -0,0 +1,156 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.ConfigView;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Every getter must answer exactly what the same path on Bukkit's YamlConfiguration answers. */
+class CompactConfigTest {
+    private static final String YAML = """
+            name: Lobby
+            port: 25565
+            big: 9000000000
+            ratio: 0.75
+            enabled: true
+            quoted-number: "42"
+            empty: ''
+            nothing: ~
+            worlds: [world, world_nether, 3, true]
+            limits:
+              max-players: 64
+              radius: 12.5
+              nested:
+                deep: yes
+            items:
+              - id: 1
+              - id: 2
+            """;
+
+    private static final String DEFAULTS = """
+            port: 1
+            motd: Default MOTD
+            limits:
+              max-players: 10
+              cooldown: 30
+            """;
+
+    private static final List<String> PATHS = List.of(
+            "name", "port", "big", "ratio", "enabled", "quoted-number", "empty", "nothing", "worlds",
+            "limits", "limits.max-players", "limits.radius", "limits.nested", "limits.nested.deep",
+            "limits.cooldown", "motd", "items", "missing", "limits.missing", "name.below-scalar");
+
+    private static YamlConfiguration bukkit(String yaml, String defaults) throws InvalidConfigurationException {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.loadFromString(yaml);
+        if (defaults != null) {
+            YamlConfiguration def = new YamlConfiguration();
+            def.loadFromString(defaults);
+            cfg.setDefaults(def);
+            cfg.options().copyDefaults(true); // as CloudConfigServiceImpl loads configs
+        }
+        return cfg;
+    }
+
+    private static ConfigView compact(String yaml, String defaults) throws IOException, InvalidConfigurationException {
+        CompactConfig def = defaults == null ? null : CompactConfig.load(() -> new StringReader(defaults));
+        return CompactConfig.load(() -> new StringReader(yaml)).view(def);
+    }
+
+    private static void assertSameGetters(YamlConfiguration expected, ConfigView actual, List<String> paths) {
+        for (String p : paths) {
+            assertEquals(expected.contains(p), actual.contains(p), "contains " + p);
+            assertEquals(expected.isConfigurationSection(p), actual.isSection(p), "isSection " + p);
+            if (!expected.isConfigurationSection(p)) { // Bukkit answers a section's toString() here
+                assertEquals(expected.getString(p), actual.getString(p), "getString " + p);
+                assertEquals(expected.getString(p, "def"), actual.getString(p, "def"), "getString(def) " + p);
+            }
+            assertEquals(expected.getInt(p), actual.getInt(p), "getInt " + p);
+            assertEquals(expected.getInt(p, -1), actual.getInt(p, -1), "getInt(def) " + p);
+            assertEquals(expected.getLong(p), actual.getLong(p), "getLong " + p);
+            assertEquals(expected.getDouble(p), actual.getDouble(p), "getDouble " + p);
+            assertEquals(expected.getBoolean(p), actual.getBoolean(p), "getBoolean " + p);
+            assertEquals(expected.getBoolean(p, true), actual.getBoolean(p, true), "getBoolean(def) " + p);
+            assertEquals(expected.getStringList(p), actual.getStringList(p), "getStringList " + p);
+        }
+    }
+
+    @Test
+    void gettersMatchBukkit() throws Exception {
+        assertSameGetters(bukkit(YAML, null), compact(YAML, null), PATHS);
+    }
+
+    @Test
+    void gettersMatchBukkitWithDefaults() throws Exception {
+        assertSameGetters(bukkit(YAML, DEFAULTS), compact(YAML, DEFAULTS), PATHS);
+    }
+
+    @Test
+    void keysKeepFileOrder() throws Exception {
+        assertEquals(List.copyOf(bukkit(YAML, null).getKeys(false)), List.copyOf(compact(YAML, null).getKeys()));
+    }
+
+    @Test
+    void keysIncludeDefaults() throws Exception {
+        ConfigView v = compact(YAML, DEFAULTS);
+        assertEquals(bukkit(YAML, DEFAULTS).getKeys(false), v.getKeys());
+        assertEquals(Set.of("max-players", "radius", "nested", "cooldown"), v.getSection("limits").getKeys());
+    }
+
+    @Test
+    void sectionsAreRelativeViews() throws Exception {
+        ConfigView limits = compact(YAML, DEFAULTS).getSection("limits");
+        assertNotNull(limits);
+        assertEquals(64, limits.getInt("max-players"));
+        assertEquals(30, limits.getInt("cooldown"));
+        assertTrue(limits.getBoolean("nested.deep"));
+        assertInstanceOf(ConfigView.class, limits.get("nested"));
+        assertNull(compact(YAML, null).getSection("name"));
+    }
+
+    @Test
+    void listsAreUnmodifiable() throws Exception {
+        List<?> worlds = compact(YAML, null).getList("worlds");
+        assertEquals(List.of("world", "world_nether", 3, true), worlds);
+        assertThrows(UnsupportedOperationException.class, () -> worlds.remove(0));
+    }
+
+    @Test
+    void keysContainingDotsFallBackToBukkit() throws Exception {
+        String yaml = """
+                a.b: 1
+                c:
+                  d: two
+                """;
+        assertSameGetters(bukkit(yaml, null), compact(yaml, null), List.of("a", "a.b", "c", "c.d", "a.b.c"));
+        ConfigView v = compact(yaml, null);
+        assertEquals(1, v.getInt("a.b"));
+        assertTrue(v.isSection("a"));
+    }
+
+    @Test
+    void anchorsFallBackToBukkit() throws Exception {
+        String yaml = """
+                base: &base
+                  speed: 3
+                copy: *base
+                """;
+        assertSameGetters(bukkit(yaml, null), compact(yaml, null), List.of("base.speed", "copy", "copy.speed"));
+    }
+
+    @Test
+    void emptyConfig() throws Exception {
+        ConfigView v = CompactConfig.EMPTY.view(null);
+        assertTrue(v.getKeys().isEmpty());
+        assertNull(v.getString("x"));
+        assertEquals(0, v.getInt("x"));
+        assertEquals(List.of(), v.getStringList("x"));
+    }
+}
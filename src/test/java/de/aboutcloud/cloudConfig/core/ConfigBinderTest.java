@@ -0,0 +1,115 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigBinderTest {
+    enum Mode { SURVIVAL, CREATIVE }
+
+    record Spawn(String world, double x, double y, double z) {}
+
+    record Settings(int maxPlayers, long seed, float scale, boolean pvp, Mode mode, Spawn spawn,
+                    List<String> worlds, List<Spawn> warps, Map<String, Integer> limits, List<Integer> unset) {}
+
+    record Small(int value) {}
+
+    private static YamlConfiguration yaml(String s) throws InvalidConfigurationException {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.loadFromString(s);
+        return cfg;
+    }
+
+    @Test
+    void bindsComponentsByNameOrKebabCase() throws Exception {
+        Settings s = ConfigBinder.bind(yaml("""
+                max-players: 64
+                seed: 9000000000
+                scale: 1.5
+                pvp: true
+                mode: creative
+                spawn:
+                  world: world
+                  x: 0.5
+                  y: 64
+                  z: -3
+                worlds: [world, world_nether]
+                warps:
+                  - {world: a, x: 1, y: 2, z: 3}
+                  - {world: b, x: 4, y: 5, z: 6}
+                limits:
+                  hoppers: 16
+                  pistons: 32
+                """), Settings.class, "");
+        assertEquals(64, s.maxPlayers());
+        assertEquals(9_000_000_000L, s.seed());
+        assertEquals(1.5f, s.scale());
+        assertTrue(s.pvp());
+        assertEquals(Mode.CREATIVE, s.mode());
+        assertEquals(new Spawn("world", 0.5, 64, -3), s.spawn());
+        assertEquals(List.of("world", "world_nether"), s.worlds());
+        assertEquals(List.of(new Spawn("a", 1, 2, 3), new Spawn("b", 4, 5, 6)), s.warps());
+        assertEquals(Map.of("hoppers", 16, "pistons", 32), s.limits());
+        assertEquals(List.of(), s.unset());
+    }
+
+    @Test
+    void exactComponentNameWins() throws Exception {
+        assertEquals(7, ConfigBinder.bind(yaml("value: 7"), Small.class, "").value());
+    }
+
+    @Test
+    void boundCollectionsAreImmutable() throws Exception {
+        Settings s = ConfigBinder.bind(yaml("""
+                maxPlayers: 1
+                seed: 1
+                scale: 1
+                pvp: false
+                mode: survival
+                spawn: {world: w, x: 0, y: 0, z: 0}
+                worlds: [a]
+                """), Settings.class, "");
+        assertThrows(UnsupportedOperationException.class, () -> s.worlds().add("b"));
+        assertThrows(UnsupportedOperationException.class, () -> s.limits().put("x", 1));
+    }
+
+    @Test
+    void reportsEveryMismatchWithItsPath() throws Exception {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ConfigBinder.bind(yaml("""
+                max-players: lots
+                seed: 1.5
+                scale: 1
+                pvp: maybe
+                mode: adventure
+                spawn: {world: w, x: 0, y: 0}
+                worlds: [a]
+                warps: [{world: a, x: one, y: 2, z: 3}]
+                """), Settings.class, "game"));
+        String msg = e.getMessage();
+        assertTrue(msg.startsWith("Cannot bind Settings:"), msg);
+        assertTrue(msg.contains("game.max-players: expected whole number but found 'lots'"), msg);
+        assertTrue(msg.contains("game.seed: expected whole number (long) but found '1.5'"), msg);
+        assertTrue(msg.contains("game.pvp: expected true/false but found 'maybe'"), msg);
+        assertTrue(msg.contains("game.mode: expected one of [SURVIVAL, CREATIVE] but found 'adventure'"), msg);
+        assertTrue(msg.contains("game.spawn.z: missing (double)"), msg);
+        assertTrue(msg.contains("game.warps[0].x: expected number but found 'one'"), msg);
+    }
+
+    @Test
+    void intOutOfRangeIsAnError() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ConfigBinder.bind(yaml("value: 3000000000"), Small.class, ""));
+        assertTrue(e.getMessage().contains("value: expected int in range"), e.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void nonRecordTypesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigBinder.bind(yaml("value: 1"), (Class) String.class, ""));
+    }
+}
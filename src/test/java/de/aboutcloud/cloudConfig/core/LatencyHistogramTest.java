@@ -0,0 +1,55 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.count());
+        assertEquals(0, h.meanMillis());
+        assertEquals(0, h.maxMillis());
+        assertEquals(0, h.percentileMillis(0.99));
+    }
+
+    @Test
+    void percentilesReportTheBucketUpperBound() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) h.record(TimeUnit.MICROSECONDS.toNanos(80));   // <= 0.1 ms
+        for (int i = 0; i < 10; i++) h.record(TimeUnit.MILLISECONDS.toNanos(20));   // <= 25 ms
+        assertEquals(100, h.count());
+        assertEquals(0.1, h.percentileMillis(0.5));
+        assertEquals(0.1, h.percentileMillis(0.9));
+        assertEquals(25.0, h.percentileMillis(0.91));
+        assertEquals(25.0, h.percentileMillis(0.99));
+    }
+
+    @Test
+    void boundsAreInclusive() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(1.0, h.percentileMillis(1.0));
+    }
+
+    @Test
+    void openEndedBucketReportsTheMax() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(TimeUnit.SECONDS.toNanos(7));
+        assertEquals(7_000.0, h.percentileMillis(0.99));
+        assertEquals(7_000.0, h.maxMillis());
+    }
+
+    @Test
+    void meanAndMax() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(TimeUnit.MILLISECONDS.toNanos(2));
+        h.record(TimeUnit.MILLISECONDS.toNanos(4));
+        assertEquals(3.0, h.meanMillis(), 1e-9);
+        assertEquals(4.0, h.maxMillis(), 1e-9);
+    }
+}
@@ -0,0 +1,83 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.config.Placeholders;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+    private final MiniMessage mm = MiniMessage.miniMessage();
+
+    @Test
+    void messageWithoutSlotsIsStatic() {
+        MessageTemplate t = MessageTemplate.compile("<gold>Welcome!</gold>", mm);
+        assertTrue(t.isStatic());
+        assertEquals("<gold>Welcome!</gold>", t.fill(Placeholders.of("player", "Notch")));
+    }
+
+    @Test
+    void fillsSlotsInOnePass() {
+        MessageTemplate t = MessageTemplate.compile("<gray>{player}</gray> has {coins} coins", mm);
+        assertFalse(t.isStatic());
+        assertEquals("<gray>Notch</gray> has 12 coins", t.fill(Placeholders.of("player", "Notch", "coins", "12")));
+    }
+
+    @Test
+    void slotNamesAllowLettersDigitsUnderscoreDashAndDot() {
+        MessageTemplate t = MessageTemplate.compile("{a_1}|{world-name}|{stats.kills}", mm);
+        assertEquals("x|nether|7", t.fill(Placeholders.of(Map.of("a_1", "x", "world-name", "nether", "stats.kills", 7))));
+    }
+
+    @Test
+    void otherBracesStayLiteral() {
+        String raw = "{} { spaced } {a b} {unclosed {json:\"x\"}";
+        MessageTemplate t = MessageTemplate.compile(raw, mm);
+        assertTrue(t.isStatic());
+        assertEquals(raw, t.fill(Placeholders.of("a", "A", "unclosed", "U")));
+    }
+
+    @Test
+    void braceBeforeSlotIsKeptAndSlotStillFilled() {
+        MessageTemplate t = MessageTemplate.compile("{{player}}", mm);
+        assertEquals("{Notch}", t.fill(Placeholders.of("player", "Notch")));
+    }
+
+    @Test
+    void unresolvedSlotsAreKeptVerbatim() {
+        MessageTemplate t = MessageTemplate.compile("{player} in {world}", mm);
+        assertEquals("Notch in {world}", t.fill(Placeholders.of("player", "Notch")));
+        assertEquals("{player} in {world}", t.fill(null));
+    }
+
+    @Test
+    void valuesAreNotRescannedForSlots() {
+        MessageTemplate t = MessageTemplate.compile("{a}{b}", mm);
+        assertEquals("{b}B", t.fill(Placeholders.of("a", "{b}", "b", "B")));
+    }
+
+    @Test
+    void slotsAtBothEnds() {
+        MessageTemplate t = MessageTemplate.compile("{a} middle {b}", mm);
+        assertEquals("1 middle 2", t.fill(Placeholders.of("a", "1", "b", "2")));
+    }
+
+    @Test
+    void renderSlotsMatchesRender() {
+        PlainTextComponentSerializer plain = PlainTextComponentSerializer.plainText();
+        MessageTemplate t = MessageTemplate.compile("<gray>{player}</gray> has <gold>{coins}</gold> coins in {world}", mm);
+        Placeholders p = Placeholders.of("player", "<red>Notch</red>", "coins", "12");
+        assertEquals(plain.serialize(t.render(p, mm)), plain.serialize(t.renderSlots(p, mm)));
+        assertEquals("Notch has 12 coins in {world}", plain.serialize(t.renderSlots(p, mm)));
+    }
+
+    @Test
+    void slotsInsideTagsAreFilledBeforeParsing() {
+        MessageTemplate t = MessageTemplate.compile("<click:run_command:'/tp {player}'>Teleport</click>", mm);
+        Placeholders p = Placeholders.of("player", "Notch");
+        assertEquals(t.render(p, mm), t.renderSlots(p, mm));
+    }
+}
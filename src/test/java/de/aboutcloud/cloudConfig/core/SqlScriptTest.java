@@ -0,0 +1,109 @@
+package de.aboutcloud.cloudConfig.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlScriptTest {
+
+    private static List<String> split(String sql) throws IOException {
+        return split(sql, Map.of());
+    }
+
+    private static List<String> split(String sql, Map<String, String> vars) throws IOException {
+        List<String> out = new ArrayList<>();
+        try (SqlScript script = new SqlScript(new StringReader(sql), vars)) {
+            for (String s; (s = script.next()) != null; ) out.add(s);
+        }
+        return out;
+    }
+
+    @Test
+    void splitsOnSemicolonsAndDropsEmptyStatements() throws IOException {
+        assertEquals(List.of("CREATE TABLE a (id INT)", "INSERT INTO a VALUES (1)"),
+                split("CREATE TABLE a (id INT);\n;;\nINSERT INTO a VALUES (1);\n"));
+    }
+
+    @Test
+    void lastStatementNeedsNoDelimiter() throws IOException {
+        assertEquals(List.of("SELECT 1", "SELECT 2"), split("SELECT 1;\nSELECT 2"));
+    }
+
+    @Test
+    void delimitersInsideQuotesAreText() throws IOException {
+        assertEquals(List.of("INSERT INTO t VALUES ('a;b', \"c;d\", `e;f`)", "SELECT 2"),
+                split("INSERT INTO t VALUES ('a;b', \"c;d\", `e;f`); SELECT 2;"));
+    }
+
+    @Test
+    void escapedAndDoubledQuotes() throws IOException {
+        assertEquals(List.of("SELECT 'it\\'s;', 'it''s;'", "SELECT 2"),
+                split("SELECT 'it\\'s;', 'it''s;'; SELECT 2;"));
+    }
+
+    @Test
+    void commentsAreDropped() throws IOException {
+        List<String> out = split("""
+                -- leading comment; with a semicolon
+                # hash comment;
+                SELECT 1 /* block; comment */ + 1;
+                SELECT 3-1; -- trailing
+                """);
+        assertEquals(2, out.size());
+        assertEquals("SELECT 1   + 1", out.get(0));
+        assertEquals("SELECT 3-1", out.get(1));
+    }
+
+    @Test
+    void executableCommentsAndHintsAreKept() throws IOException {
+        assertEquals(List.of("/*!40101 SET NAMES utf8mb4 */", "SELECT /*+ MAX_EXECUTION_TIME(1000) */ 1"),
+                split("/*!40101 SET NAMES utf8mb4 */;\nSELECT /*+ MAX_EXECUTION_TIME(1000) */ 1;"));
+    }
+
+    @Test
+    void delimiterLinesSwitchTheDelimiter() throws IOException {
+        List<String> out = split("""
+                DELIMITER //
+                CREATE TRIGGER t BEFORE INSERT ON a FOR EACH ROW BEGIN
+                  SET NEW.x = 1;
+                  SET NEW.y = 2;
+                END//
+                delimiter ;
+                SELECT 1;
+                """);
+        assertEquals(2, out.size());
+        assertTrue(out.get(0).startsWith("CREATE TRIGGER"));
+        assertTrue(out.get(0).endsWith("END"));
+        assertTrue(out.get(0).contains("SET NEW.x = 1;\n  SET NEW.y = 2;"));
+        assertEquals("SELECT 1", out.get(1));
+    }
+
+    @Test
+    void variablesAreSubstitutedEverywhere() throws IOException {
+        assertEquals(List.of("CREATE TABLE pre_users (name VARCHAR(16) DEFAULT 'pre_')"),
+                split("CREATE TABLE ${prefix}users (name VARCHAR(16) DEFAULT '${prefix}');", Map.of("prefix", "pre_")));
+    }
+
+    @Test
+    void unknownVariablesAndLoneDollarsAreKept() throws IOException {
+        assertEquals(List.of("SELECT '${missing}', $1, '${not a var}'"),
+                split("SELECT '${missing}', $1, '${not a var}';", Map.of("prefix", "x")));
+    }
+
+    @Test
+    void batchableStatementsArePlainDml() {
+        assertTrue(SqlScript.isBatchable("INSERT INTO a VALUES (1)"));
+        assertTrue(SqlScript.isBatchable("  update a SET x = 1"));
+        assertTrue(SqlScript.isBatchable("DELETE FROM a"));
+        assertTrue(SqlScript.isBatchable("REPLACE INTO a VALUES (1)"));
+        assertFalse(SqlScript.isBatchable("CREATE TABLE a (id INT)"));
+        assertFalse(SqlScript.isBatchable("ALTER TABLE a ADD b INT"));
+        assertFalse(SqlScript.isBatchable("/*!40101 SET NAMES utf8mb4 */"));
+    }
+}
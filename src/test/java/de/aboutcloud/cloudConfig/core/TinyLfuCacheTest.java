@@ -0,0 +1,141 @@
+package de.aboutcloud.cloudConfig.core;
+
+import de.aboutcloud.cloudConfig.api.databasse.CacheSpec;
+import de.aboutcloud.cloudConfig.api.databasse.CloudDatabaseService;
+import de.aboutcloud.cloudConfig.api.databasse.DbCache;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /** Only withConnection is needed; the loader never touches the (null) connection. */
+    @SuppressWarnings("unchecked")
+    private final CloudDatabaseService db = (CloudDatabaseService) Proxy.newProxyInstance(
+            CloudDatabaseService.class.getClassLoader(), new Class<?>[]{CloudDatabaseService.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("withConnection")) throw new UnsupportedOperationException(method.getName());
+                return ((CloudDatabaseService.SQLFunction<Object, ?>) args[1]).apply(null);
+            });
+
+    private TinyLfuCache<String, String> cache(long maxSize) {
+        CacheSpec<String, String> spec = CacheSpec.<String, String>of(maxSize, Duration.ofMinutes(5), (c, k) -> {
+            loads.incrementAndGet();
+            return k.startsWith("missing") ? null : "v:" + k;
+        }).withTags(v -> List.of("all", "len" + v.length()));
+        return new TinyLfuCache<>("test", null, db, spec);
+    }
+
+    @Test
+    void loadsOnceAndServesFromCache() throws SQLException {
+        TinyLfuCache<String, String> c = cache(10);
+        assertEquals("v:a", c.get("a"));
+        assertEquals("v:a", c.get("a"));
+        assertEquals(1, loads.get());
+        DbCache.Stats s = c.stats();
+        assertEquals(1, s.hits());
+        assertEquals(1, s.misses());
+    }
+
+    @Test
+    void absentRowsAreCachedToo() throws SQLException {
+        TinyLfuCache<String, String> c = cache(10);
+        assertNull(c.get("missing"));
+        assertNull(c.get("missing"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void rarelyUsedNewcomerIsNotAdmitted() {
+        TinyLfuCache<String, String> c = cache(2);
+        c.put("a", "A");
+        c.put("b", "B");
+        for (int i = 0; i < 5; i++) {
+            c.getIfPresent("a");
+            c.getIfPresent("b");
+        }
+        c.put("c", "C"); // never requested: less frequent than the LRU victim
+        assertEquals(2, c.stats().size());
+        assertEquals("A", c.getIfPresent("a"));
+        assertEquals("B", c.getIfPresent("b"));
+        assertEquals(1, c.stats().evictions());
+    }
+
+    @Test
+    void frequentNewcomerDisplacesTheLeastRecentlyUsed() {
+        TinyLfuCache<String, String> c = cache(2);
+        c.put("a", "A");
+        c.put("b", "B");
+        c.getIfPresent("a");
+        c.getIfPresent("b"); // a is now least recently used
+        for (int i = 0; i < 8; i++) assertNull(c.getIfPresent("c")); // misses still count as requests
+        c.put("c", "C");
+        assertEquals(2, c.stats().size());
+        assertEquals("C", c.getIfPresent("c"));
+        assertEquals("B", c.getIfPresent("b"));
+        assertNull(c.getIfPresent("a"));
+    }
+
+    @Test
+    void weigherBoundsTheTotalWeight() {
+        CacheSpec<String, String> spec = CacheSpec.<String, String>of(1, Duration.ofMinutes(5), (c, k) -> null)
+                .withWeigher(10, String::length);
+        TinyLfuCache<String, String> c = new TinyLfuCache<>("test", null, db, spec);
+        c.put("a", "123456");
+        c.getIfPresent("a");
+        c.put("b", "12345678"); // 6 + 8 > 10: one of them has to go
+        assertEquals(1, c.stats().size());
+        assertTrue(c.stats().weight() <= 10);
+    }
+
+    @Test
+    void invalidateRemovesTheKey() throws SQLException {
+        TinyLfuCache<String, String> c = cache(10);
+        c.get("a");
+        c.invalidate("a");
+        assertNull(c.getIfPresent("a"));
+        c.get("a");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateTagRemovesOnlyTaggedKeys() {
+        TinyLfuCache<String, String> c = cache(10);
+        c.put("a", "xx");
+        c.put("b", "yy");
+        c.put("c", "zzz");
+        c.invalidateTag("len2");
+        assertNull(c.getIfPresent("a"));
+        assertNull(c.getIfPresent("b"));
+        assertEquals("zzz", c.getIfPresent("c"));
+        c.invalidateTag("all");
+        assertEquals(0, c.stats().size());
+        assertEquals(0, c.stats().weight());
+    }
+
+    @Test
+    void replacedValueDropsItsOldTags() {
+        TinyLfuCache<String, String> c = cache(10);
+        c.put("a", "xx");
+        c.put("a", "xxx");
+        c.invalidateTag("len2");
+        assertEquals("xxx", c.getIfPresent("a"));
+    }
+
+    @Test
+    void invalidateAllClearsEverything() {
+        TinyLfuCache<String, String> c = cache(10);
+        c.put("a", "A");
+        c.put("b", "B");
+        c.invalidateAll();
+        assertEquals(0, c.stats().size());
+        assertNull(c.getIfPresent("a"));
+    }
+}